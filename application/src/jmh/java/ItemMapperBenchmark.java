@@ -0,0 +1,54 @@
+package com.example.benchmark;
+
+import com.example.dto.item.ItemViewResponse;
+import com.example.dto.item.LotResponse;
+import com.example.mapper.ItemMapper;
+import com.example.mapper.ItemMapperImpl;
+import com.example.model.entity.Item;
+import com.example.model.entity.Lot;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemMapperBenchmark {
+
+    private final ItemMapper itemMapper = new ItemMapperImpl();
+
+    private Item item;
+    private Lot lot;
+    private List<Item> page;
+
+    @Setup
+    public void setUp() {
+        item = new Item(1, "Thunderfury, Blessed Blade of the Windseeker", "{\"quality\":\"legendary\"}");
+        lot = new Lot(1L, "vendor@example.com", 100_000L, 250_000L, LocalDateTime.now());
+        page = IntStream.range(0, 20)
+                .mapToObj(i -> new Item(i, "Item " + i, "{\"level\":" + i + "}"))
+                .toList();
+    }
+
+    @Benchmark
+    public ItemViewResponse mapItem() {
+        return itemMapper.mapToViewResponse(item);
+    }
+
+    @Benchmark
+    public LotResponse mapLot() {
+        return itemMapper.mapToResponse(lot);
+    }
+
+    @Benchmark
+    public List<ItemViewResponse> mapItemPage() {
+        return page.stream().map(itemMapper::mapToViewResponse).toList();
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.example.benchmark;
+
+import com.example.metrics.JwtVerificationDuration;
+import com.example.model.entity.User;
+import com.example.utils.JwtUtils;
+import com.example.utils.JwtVerifier;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "B6E5061FADAD40CCAEBDD0F4B3EB3DEE3F4FCE86695FA0076BA9E0A894A53140";
+
+    private JwtUtils jwtUtils;
+    private JwtVerifier jwtVerifier;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(SECRET);
+        jwtVerifier = new JwtVerifier(jwtUtils, new JwtVerificationDuration(new SimpleMeterRegistry()),
+                10_000, Duration.ofMinutes(5));
+        user = new User("user@example.com", null, null, null);
+        token = jwtUtils.generateAccessToken(Map.of(), user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtils.generateAccessToken(Map.of(), user);
+    }
+
+    @Benchmark
+    public Claims parseAccessToken() {
+        return jwtUtils.parseAccessToken(token);
+    }
+
+    @Benchmark
+    public String extractSubject() {
+        return jwtUtils.parseAccessToken(token).getSubject();
+    }
+
+    @Benchmark
+    public Optional<Claims> verifyCached() {
+        return jwtVerifier.verify(token);
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.example.benchmark;
+
+import com.example.filter.MetricsFilter;
+import com.example.metrics.HttpRequestDuration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead {@link MetricsFilter} adds to a request over calling the rest of the chain directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsFilterBenchmark {
+
+    private final FilterChain chain = (request, response) ->
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{id}");
+
+    private MetricsFilter metricsFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        var slo = new Duration[]{Duration.ofMillis(10), Duration.ofMillis(100), Duration.ofSeconds(1)};
+        metricsFilter = new MetricsFilter(new HttpRequestDuration(new SimpleMeterRegistry(), slo));
+        request = new MockHttpServletRequest("GET", "/items/1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void baseline() throws ServletException, IOException {
+        chain.doFilter(request, response);
+    }
+
+    @Benchmark
+    public void metricsFilter() throws ServletException, IOException {
+        metricsFilter.doFilter(request, response, chain);
+    }
+
+}
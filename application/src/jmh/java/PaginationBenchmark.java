@@ -0,0 +1,56 @@
+package com.example.benchmark;
+
+import com.example.dto.page.PaginationRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private PaginationRequest request;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        request = new PaginationRequest("3", "20");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public PageRequest formPageRequest() {
+        return request.formPageRequest();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PaginationRequest>> validate() {
+        return validator.validate(request);
+    }
+
+    @Benchmark
+    public PageRequest validateAndFormPageRequest() {
+        if (!validator.validate(request).isEmpty()) {
+            throw new IllegalStateException("The request is invalid");
+        }
+        return request.formPageRequest();
+    }
+
+}
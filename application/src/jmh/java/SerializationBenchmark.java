@@ -0,0 +1,176 @@
+package com.example.benchmark;
+
+import com.example.dto.item.ItemViewResponse;
+import com.example.dto.item.ItemsForPeriodResponse;
+import com.example.dto.item.LotResponse;
+import com.example.dto.page.PageResponse;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the serialisation of item pages as the former {@link PageImpl} and the current {@link PageResponse},
+ * and measures the encoding and decoding of the pages of {@code /items}, {@code /items/{id}/lots} and
+ * {@code /items/items-for-period} in JSON and in CBOR. Pages are decoded the way a client would, into a plain page
+ * class, and the size of each payload is printed when its trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper jsonMapper;
+
+    private PageImpl<ItemViewResponse> itemPageImpl;
+    private PageResponse<ItemViewResponse> itemPage;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        var pageable = PageRequest.of(0, PAGE_SIZE);
+        var items = IntStream.range(0, PAGE_SIZE).mapToObj(SerializationBenchmark::item).toList();
+
+        itemPageImpl = new PageImpl<>(items, pageable, 1_000);
+        itemPage = new PageResponse<>(items, pageable, 1_000);
+    }
+
+    @Benchmark
+    public byte[] itemPageImplJson() throws JsonProcessingException {
+        return jsonMapper.writeValueAsBytes(itemPageImpl);
+    }
+
+    @Benchmark
+    public byte[] itemPageJson() throws JsonProcessingException {
+        return jsonMapper.writeValueAsBytes(itemPage);
+    }
+
+    @Benchmark
+    public byte[] encode(Payload payload) throws JsonProcessingException {
+        return payload.mapper.writeValueAsBytes(payload.page);
+    }
+
+    @Benchmark
+    public Object decode(Payload payload) throws IOException {
+        return payload.mapper.readValue(payload.encoded, payload.type);
+    }
+
+    /**
+     * Page of an endpoint in one of the formats, with its encoded form.
+     */
+    @State(Scope.Benchmark)
+    public static class Payload {
+
+        @Param({"items", "lots", "period"})
+        public String endpoint;
+
+        @Param({"json", "cbor"})
+        public String format;
+
+        private ObjectMapper mapper;
+        private PageResponse<?> page;
+        private TypeReference<?> type;
+        private byte[] encoded;
+
+        @Setup
+        public void setUp() throws JsonProcessingException {
+            mapper = switch (format) {
+                case "json" -> Jackson2ObjectMapperBuilder.json().build();
+                case "cbor" -> Jackson2ObjectMapperBuilder.json()
+                        .factory(new CBORFactory())
+                        .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .build();
+                default -> throw new IllegalArgumentException("Unknown format " + format);
+            };
+
+            var pageable = PageRequest.of(0, PAGE_SIZE);
+            switch (endpoint) {
+                case "items" -> {
+                    page = new PageResponse<>(IntStream.range(0, PAGE_SIZE)
+                            .mapToObj(SerializationBenchmark::item).toList(), pageable, 1_000);
+                    type = new TypeReference<DecodedPage<ItemViewResponse>>() {
+                    };
+                }
+                case "lots" -> {
+                    page = new PageResponse<>(IntStream.range(0, PAGE_SIZE)
+                            .mapToObj(SerializationBenchmark::lot).toList(), pageable, 1_000);
+                    type = new TypeReference<DecodedPage<LotResponse>>() {
+                    };
+                }
+                case "period" -> {
+                    page = new PageResponse<>(IntStream.range(0, PAGE_SIZE)
+                            .mapToObj(SerializationBenchmark::day).toList(), pageable, 365);
+                    type = new TypeReference<DecodedPage<ItemsForPeriodResponse>>() {
+                    };
+                }
+                default -> throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+            }
+
+            encoded = mapper.writeValueAsBytes(page);
+            System.out.printf("%n%s page of %d elements in %s: %d bytes%n",
+                    endpoint, PAGE_SIZE, format, encoded.length);
+        }
+
+    }
+
+    /**
+     * Page as decoded by a client.
+     */
+    public static class DecodedPage<T> {
+
+        public List<T> content;
+        public int page;
+        public int size;
+        public long total;
+
+        @JsonProperty("next_page")
+        public Integer nextPage;
+
+    }
+
+    private static ItemViewResponse item(int id) {
+        var item = new ItemViewResponse();
+        item.setId(id);
+        item.setName("Item " + id);
+        item.setProperties("{\"level\":" + id + ",\"quality\":\"epic\"}");
+        return item;
+    }
+
+    private static LotResponse lot(int id) {
+        var lot = new LotResponse();
+        lot.setId(id);
+        lot.setLogin("vendor" + id + "@example.com");
+        lot.setCurrent(1_000L * id);
+        lot.setBuy(2_000L * id);
+        lot.setEnd(LocalDateTime.of(2026, 1, 1, 12, 0).plusHours(id));
+        return lot;
+    }
+
+    private static ItemsForPeriodResponse day(int index) {
+        var day = new ItemsForPeriodResponse();
+        day.setDay(LocalDate.of(2026, 1, 1).plusDays(index));
+        day.setMaxCostBuy(1_500L + 37L * index);
+        day.setQuantity(3L + index % 7);
+        return day;
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.example.bidding;
+
+import com.example.model.entity.LotState;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A bid or a buyout waiting to be applied by a {@link BiddingShard}.
+ */
+@Getter
+@RequiredArgsConstructor
+class BidCommand {
+
+    private final long lotId;
+    private final String login;
+
+    /**
+     * The offered price, or {@code null} for a buyout.
+     */
+    private final Long amount;
+
+    private final CompletableFuture<LotState> result = new CompletableFuture<>();
+
+    boolean isBuyout() {
+        return amount == null;
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.example.bidding;
+
+import com.example.exception.ServiceOverloadedException;
+import com.example.metrics.BidBatchSize;
+import com.example.metrics.BidsTotal;
+import com.example.model.entity.LotState;
+import com.example.repository.BidRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Applies bids and buyouts to lots without contending on row locks. Lots are hashed to a fixed number of
+ * {@link BiddingShard shards}, each owned by a single writer thread, so the bids on a lot are applied strictly in
+ * arrival order against its in-memory state and persisted in group-commit batches. Lots missing from the shard
+ * caches are read by a small shared pool of loader threads, so the writers never wait for the database to read.
+ */
+@Component
+public class BiddingEngine {
+
+    private final BiddingShard[] shards;
+    private final ThreadPoolTaskExecutor loader;
+
+    public BiddingEngine(BidRepository bidRepository,
+                         PlatformTransactionManager transactionManager,
+                         BidsTotal bidsTotal,
+                         BidBatchSize bidBatchSize,
+                         MeterRegistry meterRegistry,
+                         @Value("${bidding.shards:4}") int shards,
+                         @Value("${bidding.queue-capacity:10000}") int queueCapacity,
+                         @Value("${bidding.batch-size:256}") int batchSize,
+                         @Value("${bidding.cached-lots:10000}") int cachedLots,
+                         @Value("${bidding.loader-threads:4}") int loaderThreads) {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.loader = new ThreadPoolTaskExecutor();
+        this.loader.setCorePoolSize(loaderThreads);
+        this.loader.setMaxPoolSize(loaderThreads);
+        this.loader.setThreadNamePrefix("bidding-loader-");
+        this.loader.setDaemon(true);
+        this.loader.initialize();
+
+        this.shards = new BiddingShard[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new BiddingShard(i, bidRepository, transactionTemplate, loader, bidsTotal, bidBatchSize,
+                    queueCapacity, batchSize, cachedLots);
+        }
+
+        Gauge.builder("bidding_queue_size", this.shards,
+                        all -> Arrays.stream(all).mapToInt(BiddingShard::pending).sum())
+                .description("Number of bids waiting to be processed by the bidding engine")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        Arrays.stream(shards).forEach(BiddingShard::start);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Arrays.stream(shards).forEach(BiddingShard::stop);
+        loader.shutdown();
+    }
+
+    /**
+     * Places a bid on a lot.
+     *
+     * @param lotId  the ID of the lot
+     * @param login  the login of the bidder
+     * @param amount the offered price
+     * @return a future completed with the state of the lot once the bid is persisted, or completed exceptionally
+     * if the bid is rejected
+     * @throws ServiceOverloadedException if the engine is shutting down or the shard of the lot cannot queue
+     *                                    more bids
+     */
+    public CompletableFuture<LotState> bid(long lotId, String login, long amount) {
+        return submit(new BidCommand(lotId, login, amount));
+    }
+
+    /**
+     * Buys a lot out at its buy price.
+     *
+     * @param lotId the ID of the lot
+     * @param login the login of the buyer
+     * @return a future completed with the state of the sold lot once the buyout is persisted, or completed
+     * exceptionally if the buyout is rejected
+     * @throws ServiceOverloadedException if the engine is shutting down or the shard of the lot cannot queue
+     *                                    more bids
+     */
+    public CompletableFuture<LotState> buyout(long lotId, String login) {
+        return submit(new BidCommand(lotId, login, null));
+    }
+
+    private CompletableFuture<LotState> submit(BidCommand command) {
+        shards[(int) Math.floorMod(command.getLotId(), (long) shards.length)].submit(command);
+
+        return command.getResult();
+    }
+
+}
@@ -0,0 +1,409 @@
+package com.example.bidding;
+
+import com.example.exception.BidRejectedException;
+import com.example.exception.EntityNotFoundException;
+import com.example.exception.ServiceOverloadedException;
+import com.example.metrics.BidBatchSize;
+import com.example.metrics.BidsTotal;
+import com.example.model.entity.LotState;
+import com.example.model.enumeration.LotStatus;
+import com.example.repository.BidRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A partition of the lots owned by a single writer thread. Commands are taken from a lock-free queue in batches,
+ * validated and applied one by one against the cached lot states, and every lot changed by a batch is then written
+ * in one transaction. The results are only completed once that transaction has committed, so an accepted bid
+ * is always durable.
+ * <p>
+ * Lots that are not cached are read by a separate loader, so a cold lot never stalls the bids on the other lots of
+ * the shard. The commands on a lot being loaded are held back in arrival order and applied once its state arrives.
+ */
+@Slf4j
+class BiddingShard implements Runnable {
+
+    private final Queue<BidCommand> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Cached lot states in access order, only touched by the writer thread.
+     */
+    private final LinkedHashMap<Long, Entry> lots = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Commands held back by the lot they wait for, only touched by the writer thread.
+     */
+    private final Map<Long, List<BidCommand>> loading = new HashMap<>();
+    private final Queue<Loaded> loaded = new ConcurrentLinkedQueue<>();
+
+    private final BidRepository bidRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor loader;
+    private final BidsTotal bidsTotal;
+    private final BidBatchSize bidBatchSize;
+
+    private final int capacity;
+    private final int batchSize;
+    private final int cachedLots;
+
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    BiddingShard(int index,
+                 BidRepository bidRepository,
+                 TransactionTemplate transactionTemplate,
+                 Executor loader,
+                 BidsTotal bidsTotal,
+                 BidBatchSize bidBatchSize,
+                 int capacity,
+                 int batchSize,
+                 int cachedLots) {
+        this.bidRepository = bidRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.loader = loader;
+        this.bidsTotal = bidsTotal;
+        this.bidBatchSize = bidBatchSize;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.cachedLots = cachedLots;
+
+        this.thread = new Thread(this, "bidding-shard-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a command for the writer thread. A command counts as pending until its result is completed.
+     *
+     * @param command the bid or buyout to apply
+     * @throws ServiceOverloadedException if the shard is shutting down or already holds as many commands
+     *                                    as it can queue
+     */
+    void submit(BidCommand command) {
+        if (!running) {
+            throw shuttingDown();
+        }
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            throw new ServiceOverloadedException("Too many bids are waiting to be processed, please retry later");
+        }
+
+        command.getResult().whenComplete((state, error) -> pending.decrementAndGet());
+        queue.add(command);
+
+        // the writer may have drained the queue for the last time between the check above and the add
+        if (!running && queue.remove(command)) {
+            command.getResult().completeExceptionally(shuttingDown());
+            throw shuttingDown();
+        }
+
+        LockSupport.unpark(thread);
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    @Override
+    public void run() {
+        var batch = new ArrayList<BidCommand>(batchSize);
+
+        while (running) {
+            Loaded lot;
+            while ((lot = loaded.poll()) != null) {
+                batch.addAll(install(lot));
+            }
+
+            BidCommand command;
+            while (batch.size() < batchSize && (command = queue.poll()) != null) {
+                batch.add(command);
+            }
+
+            if (batch.isEmpty()) {
+                if (loaded.isEmpty()) {
+                    LockSupport.park(this);
+                }
+                continue;
+            }
+
+            try {
+                process(batch);
+            } catch (RuntimeException e) {
+                log.error("Unexpected failure while processing bids", e);
+                lots.clear();
+                batch.forEach(failed -> failed.getResult().completeExceptionally(e));
+            }
+
+            batch.clear();
+        }
+
+        var shutdown = shuttingDown();
+        BidCommand command;
+        while ((command = queue.poll()) != null) {
+            command.getResult().completeExceptionally(shutdown);
+        }
+        loading.values().forEach(waiting -> waiting.forEach(held -> held.getResult().completeExceptionally(shutdown)));
+        loading.clear();
+    }
+
+    private void process(List<BidCommand> batch) {
+        var accepted = new LinkedHashMap<Entry, List<Accepted>>();
+        var now = LocalDateTime.now();
+
+        for (var command : batch) {
+            var entry = lots.get(command.getLotId());
+            if (entry == null) {
+                load(command);
+                continue;
+            }
+
+            try {
+                apply(entry.state, command, now);
+                accepted.computeIfAbsent(entry, key -> new ArrayList<>())
+                        .add(new Accepted(command, entry.state.copy()));
+            } catch (BidRejectedException e) {
+                bidsTotal.rejected();
+                command.getResult().completeExceptionally(e);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            commit(accepted);
+        }
+
+        trim();
+    }
+
+    /**
+     * Holds a command back until the state of its lot is loaded, starting the load if it is not already running.
+     */
+    private void load(BidCommand command) {
+        long lotId = command.getLotId();
+
+        var waiting = loading.get(lotId);
+        if (waiting == null) {
+            try {
+                loader.execute(() -> read(lotId));
+            } catch (RejectedExecutionException e) {
+                command.getResult().completeExceptionally(shuttingDown());
+                return;
+            }
+
+            waiting = new ArrayList<>();
+            loading.put(lotId, waiting);
+        }
+
+        waiting.add(command);
+    }
+
+    /**
+     * Reads the state of a lot on a loader thread and hands it over to the writer thread.
+     */
+    private void read(long lotId) {
+        Loaded result;
+        try {
+            result = new Loaded(lotId, bidRepository.findLot(lotId)
+                    .orElseThrow(() -> new EntityNotFoundException("There is no lot with such an identifier")), null);
+        } catch (RuntimeException e) {
+            result = new Loaded(lotId, null, e);
+        }
+
+        loaded.add(result);
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Caches a loaded lot and returns the commands that waited for it, in arrival order.
+     */
+    private List<BidCommand> install(Loaded lot) {
+        var waiting = loading.remove(lot.lotId);
+        if (waiting == null) {
+            return List.of();
+        }
+
+        if (lot.error != null) {
+            waiting.forEach(command -> command.getResult().completeExceptionally(lot.error));
+            return List.of();
+        }
+
+        lots.put(lot.lotId, new Entry(lot.state, lot.state.getCurrent()));
+        return waiting;
+    }
+
+    private static ServiceOverloadedException shuttingDown() {
+        return new ServiceOverloadedException("The bidding engine is shutting down");
+    }
+
+    private static void apply(LotState state, BidCommand command, LocalDateTime now) {
+        if (state.getStatus() != LotStatus.ACTIVE) {
+            throw new BidRejectedException("The lot is no longer active");
+        }
+        if (state.getEnd() != null && !now.isBefore(state.getEnd())) {
+            throw new BidRejectedException("The auction for the lot has ended");
+        }
+        if (command.getLogin().equals(state.getVendor())) {
+            throw new BidRejectedException("A vendor cannot bid on their own lot");
+        }
+
+        if (command.isBuyout()) {
+            state.setCurrent(state.getBuy());
+            state.setBidder(command.getLogin());
+            state.setStatus(LotStatus.SOLD);
+            return;
+        }
+
+        long amount = command.getAmount();
+        if (amount <= state.getCurrent()) {
+            throw new BidRejectedException("The bid must be higher than the current price of " + state.getCurrent());
+        }
+        if (amount >= state.getBuy()) {
+            throw new BidRejectedException("The bid must be lower than the buy price of " + state.getBuy() +
+                    ", use a buyout instead");
+        }
+
+        state.setCurrent(amount);
+        state.setBidder(command.getLogin());
+    }
+
+    private void commit(Map<Entry, List<Accepted>> accepted) {
+        var entries = new ArrayList<>(accepted.keySet());
+
+        Set<Entry> conflicts;
+        try {
+            conflicts = transactionTemplate.execute(status -> write(entries));
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist a batch of {} lots", entries.size(), e);
+
+            for (var entry : entries) {
+                lots.remove(entry.state.getId());
+                accepted.get(entry).forEach(result -> result.command.getResult().completeExceptionally(e));
+            }
+            return;
+        }
+
+        bidBatchSize.record(entries.size());
+
+        for (var entry : entries) {
+            var results = accepted.get(entry);
+
+            if (conflicts.contains(entry)) {
+                lots.remove(entry.state.getId());
+                bidsTotal.conflicts(results.size());
+
+                var conflict = new BidRejectedException("The lot has been changed by another process, please retry");
+                results.forEach(result -> result.command.getResult().completeExceptionally(conflict));
+                continue;
+            }
+
+            entry.committed = entry.state.getCurrent();
+            if (entry.state.getStatus() != LotStatus.ACTIVE) {
+                lots.remove(entry.state.getId());
+            }
+
+            bidsTotal.accepted(results.size());
+            results.forEach(result -> result.command.getResult().complete(result.state));
+        }
+    }
+
+    private Set<Entry> write(List<Entry> entries) {
+        var counts = bidRepository.updateCosts(
+                entries.stream().map(entry -> entry.state).toList(),
+                entries.stream().map(entry -> entry.committed).toList());
+
+        var conflicts = new HashSet<Entry>();
+        var sold = new ArrayList<Long>();
+        for (int i = 0; i < entries.size(); i++) {
+            var entry = entries.get(i);
+            if (counts[i] == 0) {
+                conflicts.add(entry);
+            } else if (entry.state.getStatus() == LotStatus.SOLD) {
+                sold.add(entry.state.getId());
+            }
+        }
+
+        if (!sold.isEmpty()) {
+            bidRepository.markSold(sold);
+        }
+
+        return conflicts;
+    }
+
+    private void trim() {
+        var iterator = lots.entrySet().iterator();
+        while (lots.size() > cachedLots && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * The cached state of a lot together with the price last persisted for it.
+     */
+    private static class Entry {
+
+        private final LotState state;
+        private long committed;
+
+        Entry(LotState state, long committed) {
+            this.state = state;
+            this.committed = committed;
+        }
+
+    }
+
+    /**
+     * The state of a lot read by the loader, or the failure to read it.
+     */
+    @RequiredArgsConstructor
+    private static class Loaded {
+
+        private final long lotId;
+        private final LotState state;
+        private final RuntimeException error;
+
+    }
+
+    /**
+     * An accepted command together with the state of the lot right after it was applied.
+     */
+    @RequiredArgsConstructor
+    private static class Accepted {
+
+        private final BidCommand command;
+        private final LotState state;
+
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.example.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+/**
+ * Represents a serialised response body kept by the {@link ResponseCache}.
+ */
+@Getter
+@AllArgsConstructor
+public class CachedResponse {
+
+    /**
+     * The media type of the body.
+     */
+    private final MediaType contentType;
+
+    /**
+     * The body.
+     */
+    private final byte[] body;
+
+    /**
+     * The gzip-compressed body, or {@code null} if the body is too small to be worth compressing.
+     */
+    private final byte[] gzip;
+
+    int weight() {
+        return body.length + (gzip == null ? 0 : gzip.length);
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.example.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.commons.lang3.tuple.Triple;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of serialised response bodies, so a hit is written out as is instead of being mapped and serialised again.
+ * Entries are grouped into regions named after the data they are built from and keyed by the normalised request
+ * parameters and the media type of the body, JSON by default or CBOR when the client prefers it.
+ * A region is invalidated along with the data caches it depends on; an entry built while its region
+ * was being invalidated is dropped instead of outliving the invalidation.
+ */
+@Component
+public class ResponseCache {
+
+    private final Cache<Triple<String, MediaType, List<?>>, CachedResponse> cache;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final Map<MediaType, ObjectMapper> objectMappers = new LinkedHashMap<>();
+
+    private final int gzipMinSize;
+
+    public ResponseCache(ObjectMapper objectMapper,
+                         MappingJackson2CborHttpMessageConverter cborConverter,
+                         MeterRegistry meterRegistry,
+                         @Value("${response-cache.max-size:64MB}") DataSize maxSize,
+                         @Value("${response-cache.gzip-min-size:1KB}") DataSize gzipMinSize) {
+        this.objectMappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        this.objectMappers.put(MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper());
+        this.gzipMinSize = (int) gzipMinSize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<Triple<String, MediaType, List<?>>, CachedResponse>weigher((key, response) -> response.weight())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "responses");
+    }
+
+    /**
+     * Chooses the media type to serialise a response to, the first supported one the client accepts.
+     *
+     * @param accept the value of the {@code Accept} header, or {@code null} if absent
+     * @return the chosen media type, JSON if the client accepts none of the supported ones
+     */
+    public MediaType negotiate(String accept) {
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+
+        for (MediaType mediaType : accepted) {
+            for (MediaType supported : objectMappers.keySet()) {
+                if (mediaType.isCompatibleWith(supported)) {
+                    return supported;
+                }
+            }
+        }
+
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Retrieves the serialised response to a request, building and caching it on a miss.
+     *
+     * @param region    the region of the response
+     * @param mediaType the media type to serialise the body to, as chosen by {@link #negotiate(String)}
+     * @param request   the normalised parameters of the request
+     * @param body      the supplier of the response body, called on a miss
+     * @return the serialised response
+     */
+    public CachedResponse get(String region, MediaType mediaType, List<?> request, Supplier<?> body) {
+        var key = Triple.<String, MediaType, List<?>>of(region, mediaType, request);
+
+        var response = cache.getIfPresent(key);
+        if (response != null) {
+            return response;
+        }
+
+        var generation = generation(region);
+        var expected = generation.get();
+
+        response = serialise(mediaType, body.get());
+        cache.put(key, response);
+
+        if (generation.get() != expected) {
+            cache.invalidate(key);
+        }
+
+        return response;
+    }
+
+    /**
+     * Drops all responses of a region.
+     *
+     * @param region the region to invalidate
+     */
+    public void invalidate(String region) {
+        generation(region).incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.getLeft().equals(region));
+    }
+
+    private AtomicLong generation(String region) {
+        return generations.computeIfAbsent(region, name -> new AtomicLong());
+    }
+
+    private CachedResponse serialise(MediaType mediaType, Object body) {
+        try {
+            var bytes = objectMappers.get(mediaType).writeValueAsBytes(body);
+
+            return new CachedResponse(mediaType, bytes, bytes.length >= gzipMinSize ? gzip(bytes) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise the response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        var buffer = new ByteArrayOutputStream(bytes.length / 4);
+        try (var gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+}
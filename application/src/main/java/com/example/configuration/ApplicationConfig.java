@@ -3,11 +3,13 @@ package com.example.configuration;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.Map;
 
 @Configuration
 @EnableCaching
+@EnableScheduling
 public class ApplicationConfig {
 
     @Bean
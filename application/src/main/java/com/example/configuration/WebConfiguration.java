@@ -1,6 +1,11 @@
 package com.example.configuration;
 
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -12,4 +17,17 @@ public class WebConfiguration implements WebMvcConfigurer {
         registry.addMapping("/**").allowedMethods("*");
     }
 
-}
\ No newline at end of file
+    /**
+     * Serves {@code application/cbor} to clients asking for it, with the same Jackson settings as JSON
+     * except for dates, which are written as arrays of numbers instead of strings to be parsed.
+     * JSON stays the default, as its converter comes first.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder
+                .factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.example.controller;
+
+import com.example.dto.error.ErrorResponse;
+import com.example.mapper.ItemMapper;
+import com.example.service.ExportService;
+import com.example.utils.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.DisconnectedClientHelper;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+@RestController
+@Tag(name = "export", description = "A controller for streaming full result sets as NDJSON")
+@RequestMapping("/export")
+@RequiredArgsConstructor
+@Slf4j
+public class ExportController {
+
+    private static final DisconnectedClientHelper DISCONNECTED_CLIENT_HELPER =
+            new DisconnectedClientHelper(ExportController.class.getName());
+
+    private final ExportService exportService;
+
+    private final ItemMapper itemMapper;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.flush-interval:100}")
+    private int flushInterval;
+
+    @GetMapping("/items/{id}/period")
+    @Operation(description = "Stream the maximum price of the item per day for a given period as NDJSON, " +
+            "one object per line ordered by day",
+            summary = "Export Items for Period", tags = {"export"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Items for period streamed successfully",
+                    content = @Content(mediaType = NdjsonWriter.MEDIA_TYPE)),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or a start date after the end date",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Item not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public void exportItemsForPeriod(
+            @Parameter(description = "The ID of the item to export the history for", required = true, example = "123")
+            @PathVariable
+            @Pattern(regexp = "^(?!0+$)\\d{1,19}$", message = "The item ID must be a positive number of type long")
+            String id,
+            @Parameter(description = "Start date of the period", required = true, example = "2024-01-01")
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate start,
+            @Parameter(description = "End date of the period", required = true, example = "2024-12-31")
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate end,
+            @Parameter(description = "The day of the last row already received; the export resumes after it",
+                    example = "2024-06-30")
+            @RequestParam(name = "resume_token", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate resumeToken,
+            HttpServletResponse response) {
+        var writer = new NdjsonWriter(objectMapper, response, flushInterval);
+
+        stream(writer, response, () -> exportService.exportItemsForPeriod(start, end, Long.parseLong(id), resumeToken,
+                items -> writer.write(itemMapper.mapToResponse(items))));
+    }
+
+    @GetMapping("/items/{id}/lots")
+    @Operation(description = "Stream the active lots of the item as NDJSON, one object per line ordered by lot ID",
+            summary = "Export Active Lots for Item", tags = {"export"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Active lots streamed successfully",
+                    content = @Content(mediaType = NdjsonWriter.MEDIA_TYPE)),
+            @ApiResponse(responseCode = "400", description = "Invalid request data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Item not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public void exportActiveLots(
+            @Parameter(description = "The ID of the item to export active lots for", required = true, example = "123")
+            @PathVariable
+            @Pattern(regexp = "^(?!0+$)\\d{1,19}$", message = "The item ID must be a positive number of type long")
+            String id,
+            @Parameter(description = "The ID of the last lot already received; the export resumes after it",
+                    example = "1001")
+            @RequestParam(name = "resume_token", required = false)
+            Long resumeToken,
+            HttpServletResponse response) {
+        var writer = new NdjsonWriter(objectMapper, response, flushInterval);
+
+        stream(writer, response, () -> exportService.exportActiveLots(Long.parseLong(id), resumeToken,
+                lot -> writer.write(itemMapper.mapToResponse(lot))));
+    }
+
+    @GetMapping("/lots")
+    @Operation(description = "Stream the active lots of all items in a category as NDJSON, " +
+            "one object per line ordered by lot ID",
+            summary = "Export Active Lots for Category", tags = {"export"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Active lots streamed successfully",
+                    content = @Content(mediaType = NdjsonWriter.MEDIA_TYPE)),
+            @ApiResponse(responseCode = "400", description = "Invalid request data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public void exportActiveLotsByCategory(
+            @Parameter(description = "The category to export active lots for", required = true, example = "ore")
+            @RequestParam
+            String category,
+            @Parameter(description = "The ID of the last lot already received; the export resumes after it",
+                    example = "1001")
+            @RequestParam(name = "resume_token", required = false)
+            Long resumeToken,
+            HttpServletResponse response) {
+        var writer = new NdjsonWriter(objectMapper, response, flushInterval);
+
+        stream(writer, response, () -> exportService.exportActiveLots(category, resumeToken,
+                lot -> writer.write(itemMapper.mapToResponse(lot))));
+    }
+
+    /**
+     * Runs an export, treating a client that went away as a cancellation. Any other failure is rethrown even once the
+     * response is committed, so that the container aborts the connection instead of ending the stream normally and
+     * the client can tell the export is incomplete.
+     */
+    private void stream(NdjsonWriter writer, HttpServletResponse response, Runnable export) {
+        try {
+            export.run();
+            writer.flush();
+        } catch (RuntimeException e) {
+            if (e instanceof UncheckedIOException
+                    && DISCONNECTED_CLIENT_HELPER.isClientDisconnectedException(e.getCause())) {
+                log.info("Export cancelled by the client after {} rows", writer.getWritten());
+                return;
+            }
+
+            log.error("Export failed after {} rows{}", writer.getWritten(),
+                    response.isCommitted() ? ", aborting the response" : "", e);
+            throw e;
+        }
+    }
+
+}
@@ -1,12 +1,20 @@
 package com.example.controller;
 
+import com.example.cache.CachedResponse;
+import com.example.cache.ResponseCache;
 import com.example.dto.error.ErrorResponse;
 import com.example.dto.item.*;
+import com.example.dto.page.PageResponse;
 import com.example.dto.page.PaginationRequest;
+import com.example.event.LotEventBroadcaster;
 import com.example.mapper.ItemMapper;
+import com.example.model.entity.SelfPrice;
 import com.example.service.ItemService;
+import com.example.store.CatalogVersionStore;
+import com.example.utils.ConcurrentQueries;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,16 +23,25 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @Tag(name = "items", description = "A controller for controlling objects")
@@ -33,14 +50,24 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final LotEventBroadcaster lotEventBroadcaster;
+
+    private final CatalogVersionStore catalogVersionStore;
+    private final ResponseCache responseCache;
 
     private final ItemMapper itemMapper;
+    private final ConcurrentQueries concurrentQueries;
+
+    @Value("${catalog-cache.max-age:PT60S}")
+    private Duration cacheMaxAge;
 
     @GetMapping
     @Operation(description = "Get all existing items with possible filtering by category and name",
             summary = "Retrieve Items", tags = {"items"})
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Items retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "Items retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PageResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request data",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class))),
@@ -48,28 +75,37 @@ public class ItemController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Page<ItemViewResponse> getItems(
+    public ResponseEntity<byte[]> getItems(
             @Parameter(description = "The category to filter items by")
             String category,
             @Parameter(description = "The name to filter items by")
             String name,
-            @Valid PaginationRequest paginationRequest
+            @Valid PaginationRequest paginationRequest,
+            WebRequest request
     ) {
         var pagination = paginationRequest.formPageRequest();
 
-        var items = itemService.getItems(name, category, pagination);
+        var mediaType = responseCache.negotiate(request.getHeader(HttpHeaders.ACCEPT));
 
-        var itemResponses = items.getKey().stream()
-                .map(itemMapper::mapToViewResponse)
-                .toList();
+        var response = responseCache.get("items", mediaType,
+                Arrays.asList(name, category, pagination.getPageNumber(), pagination.getPageSize()), () -> {
+                    var items = itemService.getItems(name, category, pagination);
+
+                    var itemResponses = items.getKey().stream()
+                            .map(itemMapper::mapToViewResponse)
+                            .toList();
+
+                    return new PageResponse<>(itemResponses, pagination, items.getValue());
+                });
 
-        return new PageImpl<>(itemResponses, pagination, items.getValue());
+        return cached(request, ResponseEntity.ok(), null, response);
     }
 
     @GetMapping("/{id}")
     @Operation(description = "Get an item by ID", summary = "Get Item by ID", tags = {"items"})
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Item retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Invalid request data",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class))),
@@ -80,22 +116,32 @@ public class ItemController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public ItemResponse getItem(
+    public ResponseEntity<ItemResponse> getItem(
             @Parameter(description = "The ID of the item to retrieve", required = true, example = "123")
             @PathVariable
             @Pattern(regexp = "^(?!0+$)\\d{1,19}$", message = "The item ID must be a positive number of type long")
-            String id) {
+            String id,
+            WebRequest request) {
         var itemId = Long.parseLong(id);
-        var item = itemService.getItem(itemId);
-
-        var responseItem = itemMapper.mapToResponse(item);
 
-        if (!(SecurityContextHolder.getContext().getAuthentication() instanceof AnonymousAuthenticationToken)) {
-            var user = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-            responseItem.setIsFavourite(itemService.isFavourite(user.getUsername(), itemId));
+        if (SecurityContextHolder.getContext().getAuthentication() instanceof AnonymousAuthenticationToken) {
+            return conditional(request, catalogVersionStore.getItemTag(itemId, null), publicCacheControl(),
+                    () -> itemMapper.mapToResponse(itemService.getItem(itemId)));
         }
 
-        return responseItem;
+        var user = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return conditional(request, catalogVersionStore.getItemTag(itemId, user.getUsername()), privateCacheControl(),
+                () -> {
+                    var result = concurrentQueries.run(
+                            () -> itemService.getItem(itemId),
+                            () -> itemService.isFavourite(user.getUsername(), itemId)
+                    );
+
+                    var responseItem = itemMapper.mapToResponse(result.getLeft());
+                    responseItem.setIsFavourite(result.getRight());
+
+                    return responseItem;
+                });
     }
 
     @PreAuthorize("isAuthenticated()")
@@ -114,7 +160,7 @@ public class ItemController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Page<ItemViewResponse> getFavouriteItems(
+    public PageResponse<ItemViewResponse> getFavouriteItems(
             @Parameter(description = "The name to filter favourite items by")
             String name,
             @Parameter(description = "The category to filter favourite items by")
@@ -130,7 +176,7 @@ public class ItemController {
                 .map(itemMapper::mapToViewResponse)
                 .toList();
 
-        return new PageImpl<>(itemResponses, pagination, items.getValue());
+        return new PageResponse<>(itemResponses, pagination, items.getValue());
     }
 
     @PreAuthorize("isAuthenticated()")
@@ -207,6 +253,79 @@ public class ItemController {
         return itemService.getSelfPrice(Long.parseLong(id));
     }
 
+    @PostMapping("/batch")
+    @Operation(description = "Get several items by their IDs, null for the IDs of missing items",
+            summary = "Get Items by IDs",
+            tags = {"items"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Items retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity - Validation errors",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public List<ItemViewResponse> getItems(@RequestBody @Valid ItemBatchRequest dto) {
+        return itemService.getItems(parseIds(dto)).stream()
+                .map(itemMapper::mapToViewResponse)
+                .toList();
+    }
+
+    @PostMapping("/self-price/batch")
+    @Operation(description = "Get the costs of several items based on their components, " +
+            "null for the items whose self-price cannot be calculated",
+            summary = "Get Items Self-Prices",
+            tags = {"items"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Items self-prices retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity - Validation errors",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public List<SelfPriceResponse> getSelfPrices(@RequestBody @Valid ItemBatchRequest dto) {
+        var ids = parseIds(dto);
+        var selfPrices = itemService.getSelfPrices(ids);
+
+        var responses = new ArrayList<SelfPriceResponse>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            responses.add(itemMapper.mapToResponse(new SelfPrice(ids.get(i), selfPrices.get(i))));
+        }
+        return responses;
+    }
+
+    @PostMapping("/lot-summaries/batch")
+    @Operation(description = "Get the number of active lots and their lowest costs for several items, " +
+            "null for the IDs of missing items",
+            summary = "Get Items Lot Summaries",
+            tags = {"items"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lot summaries retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity - Validation errors",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public List<LotSummaryResponse> getLotSummaries(@RequestBody @Valid ItemBatchRequest dto) {
+        return itemService.getLotSummaries(parseIds(dto)).stream()
+                .map(itemMapper::mapToResponse)
+                .toList();
+    }
+
     @PostMapping("/items-for-period")
     @Operation(description = "Get the maximum price of the product per day for a given period",
             summary = "Get Items for Period",
@@ -223,9 +342,9 @@ public class ItemController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Page<ItemsForPeriodResponse> getItemsForPeriod(
+    public PageResponse<ItemsForPeriodResponse> getItemsForPeriod(
             @RequestBody @Valid ItemsForPeriodRequest dto,
-            @RequestParam @Valid PaginationRequest paginationRequest
+            @Valid PaginationRequest paginationRequest
     ) {
         var pagination = paginationRequest.formPageRequest();
 
@@ -236,20 +355,63 @@ public class ItemController {
                 .map(itemMapper::mapToResponse)
                 .toList();
 
-        return new PageImpl<>(itemResponses, pagination, items.getValue());
+        return new PageResponse<>(itemResponses, pagination, items.getValue());
+    }
+
+    @PostMapping("/price-distribution")
+    @Operation(description = "Get the 10th, 50th and 90th percentiles of the prices the product was sold for " +
+            "during a given period",
+            summary = "Get Price Distribution",
+            tags = {"items"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Price distribution retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Item not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity - Validation errors",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public PriceDistributionResponse getPriceDistribution(@RequestBody @Valid ItemsForPeriodRequest dto) {
+        var distribution = itemService
+                .getPriceDistribution(dto.getStart(), dto.getEnd(), Long.parseLong(dto.getItemId()));
+
+        return itemMapper.mapToResponse(distribution);
     }
 
     @GetMapping("/categories")
     @Operation(description = "Get the categories of items that exist in the database",
             summary = "Retrieve Item Categories", tags = {"items"})
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Categories retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "Categories retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = String.class)))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public List<String> getExistingCategories() {
-        return itemService.getCategories();
+    public ResponseEntity<byte[]> getExistingCategories(WebRequest request) {
+        var tag = catalogVersionStore.getCategoriesTag();
+        var mediaType = responseCache.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+
+        if (tag != null) {
+            var matched = findMatchingTag(request,
+                    variantTag(tag, mediaType, false), variantTag(tag, mediaType, true));
+            if (matched != null) {
+                return notModified(matched, publicCacheControl());
+            }
+        }
+
+        var response = responseCache.get("categories", mediaType, List.of(), itemService::getCategories);
+
+        return cached(request, ResponseEntity.ok().cacheControl(publicCacheControl()), tag, response);
     }
 
     @PreAuthorize("isAuthenticated()")
@@ -287,7 +449,7 @@ public class ItemController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Page<LotResponse> getActiveLots(
+    public PageResponse<LotResponse> getActiveLots(
             @Parameter(description = "The ID of the item to retrieve active lots for",
                     required = true, example = "123")
             @PathVariable("id") String id,
@@ -300,7 +462,38 @@ public class ItemController {
                 .map(itemMapper::mapToResponse)
                 .toList();
 
-        return new PageImpl<>(lotResponses, pagination, lots.getValue());
+        return new PageResponse<>(lotResponses, pagination, lots.getValue());
+    }
+
+    @GetMapping(value = "/{id}/lots/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(description = "Subscribe to the changes of the item lots as server-sent events, named after the kind " +
+            "of the change: CREATED, PRICE_CHANGED, SOLD or EXPIRED",
+            summary = "Subscribe to Lot Events for Item",
+            tags = {"items"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Subscribed to lot events successfully",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = LotEventResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Item not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public SseEmitter subscribeToLotEvents(
+            @Parameter(description = "The ID of the item to receive lot events for",
+                    required = true, example = "123")
+            @PathVariable("id")
+            @Pattern(regexp = "^(?!0+$)\\d{1,19}$", message = "The item ID must be a positive number of type long")
+            String id) {
+        var itemId = Long.parseLong(id);
+        itemService.getItem(itemId);
+
+        return lotEventBroadcaster.subscribe(itemId);
     }
 
     @GetMapping("/{id}/dependencies")
@@ -309,6 +502,7 @@ public class ItemController {
             tags = {"items"})
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Item dependencies retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Invalid request data",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class))),
@@ -319,22 +513,152 @@ public class ItemController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Page<DependencyResponse> getDependencies(
+    public ResponseEntity<PageResponse<DependencyResponse>> getDependencies(
             @Parameter(description = "The ID of the item to retrieve dependencies for",
                     required = true, example = "123")
             @PathVariable
             @Pattern(regexp = "^(?!0+$)\\d{1,19}$", message = "The item ID must be a positive number of type long")
             String id,
-            @Valid PaginationRequest paginationRequest) {
+            @Valid PaginationRequest paginationRequest,
+            WebRequest request) {
+        var itemId = Long.parseLong(id);
         var pagination = paginationRequest.formPageRequest();
 
-        var dependencies = itemService
-                .getDependencies(Long.parseLong(id), pagination);
+        return conditional(request, catalogVersionStore.getDependenciesTag(itemId), publicCacheControl(), () -> {
+            var dependencies = itemService
+                    .getDependencies(itemId, pagination);
 
-        var dependencyResponses = dependencies.getKey().stream()
-                .map(itemMapper::mapToResponse)
-                .toList();
+            var dependencyResponses = dependencies.getKey().stream()
+                    .map(itemMapper::mapToResponse)
+                    .toList();
 
-        return new PageImpl<>(dependencyResponses, pagination, dependencies.getValue());
+            return new PageResponse<>(dependencyResponses, pagination, dependencies.getValue());
+        });
     }
+
+    /**
+     * Answers a conditional request for catalog data. A request whose {@code If-None-Match} header matches the
+     * current tag gets an empty 304 response without the data being loaded, any other gets the data along with
+     * the tag. Without a tag the data is always loaded and only the cache directives are added.
+     * The body is serialised to the media type chosen by {@link ResponseCache#negotiate(String)},
+     * whose tag is distinct, as a strong tag identifies exact bytes.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, String tag, CacheControl cacheControl,
+                                              Supplier<T> body) {
+        var mediaType = responseCache.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        var variant = tag == null ? null : variantTag(tag, mediaType, false);
+
+        var matched = findMatchingTag(request, variant);
+        if (matched != null) {
+            return notModified(matched, cacheControl);
+        }
+
+        var response = ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .contentType(mediaType)
+                .varyBy(HttpHeaders.ACCEPT);
+        if (variant != null) {
+            response.eTag(variant);
+        }
+
+        return response.body(body.get());
+    }
+
+    /**
+     * Writes a response from the {@link ResponseCache} as is, choosing the gzip-compressed body
+     * when the client accepts it. Every media type and encoding of the body gets its own tag.
+     */
+    private static ResponseEntity<byte[]> cached(WebRequest request, ResponseEntity.BodyBuilder builder, String tag,
+                                                 CachedResponse response) {
+        builder.contentType(response.getContentType())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+        if (response.getGzip() != null && acceptsGzip(request)) {
+            if (tag != null) {
+                builder.eTag(variantTag(tag, response.getContentType(), true));
+            }
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(response.getGzip());
+        }
+
+        if (tag != null) {
+            builder.eTag(variantTag(tag, response.getContentType(), false));
+        }
+        return builder.body(response.getBody());
+    }
+
+    private static String variantTag(String tag, MediaType mediaType, boolean gzip) {
+        var variant = MediaType.APPLICATION_CBOR.equals(mediaType) ? tag + "-cbor" : tag;
+
+        return gzip ? variant + "-gzip" : variant;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String tag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(tag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    /**
+     * Finds which of the current tags of a resource the {@code If-None-Match} header of a request matches.
+     *
+     * @return the matching tag, or {@code null} if there is none
+     */
+    private static String findMatchingTag(WebRequest request, String... tags) {
+        var headers = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (headers == null) {
+            return null;
+        }
+
+        for (String header : headers) {
+            for (String candidate : header.split(",")) {
+                candidate = candidate.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                for (String tag : tags) {
+                    if (tag != null && (candidate.equals("*") || candidate.equals("\"" + tag + "\""))) {
+                        return tag;
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean acceptsGzip(WebRequest request) {
+        var headers = request.getHeaderValues(HttpHeaders.ACCEPT_ENCODING);
+        if (headers == null) {
+            return false;
+        }
+
+        for (String header : headers) {
+            for (String encoding : header.split(",")) {
+                var parts = encoding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")
+                        && (parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?"))) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private CacheControl publicCacheControl() {
+        return CacheControl.maxAge(cacheMaxAge).cachePublic().mustRevalidate();
+    }
+
+    private CacheControl privateCacheControl() {
+        return CacheControl.maxAge(cacheMaxAge).cachePrivate().mustRevalidate();
+    }
+
+    private static List<Long> parseIds(ItemBatchRequest dto) {
+        return dto.getItemIds().stream()
+                .map(Long::parseLong)
+                .toList();
+    }
+
 }
@@ -0,0 +1,110 @@
+package com.example.controller;
+
+import com.example.dto.error.ErrorResponse;
+import com.example.dto.lot.BidRequest;
+import com.example.dto.lot.BidResponse;
+import com.example.mapper.LotMapper;
+import com.example.service.BidService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@Tag(name = "lots", description = "A controller for bidding on lots")
+@RequestMapping("/lots")
+@RequiredArgsConstructor
+public class LotController {
+
+    private final BidService bidService;
+
+    private final LotMapper lotMapper;
+
+    @PreAuthorize("isAuthenticated()")
+    @PostMapping("/{id}/bids")
+    @Operation(description = "Place a bid higher than the current price and lower than the buy price of the lot",
+            summary = "Place Bid", tags = {"lots"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Bid placed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Lot not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Bid rejected for the current state of the lot",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity - Validation errors",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Too many bids waiting to be processed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public CompletableFuture<BidResponse> placeBid(
+            @Parameter(description = "The ID of the lot to bid on", required = true, example = "1001")
+            @PathVariable
+            @Pattern(regexp = "^(?!0+$)\\d{1,19}$", message = "The lot ID must be a positive number of type long")
+            String id,
+            @RequestBody @Valid BidRequest dto) {
+        var user = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        return bidService.placeBid(user.getUsername(), Long.parseLong(id), dto.getAmount())
+                .thenApply(lotMapper::mapToResponse);
+    }
+
+    @PreAuthorize("isAuthenticated()")
+    @PostMapping("/{id}/buyout")
+    @Operation(description = "Buy the lot out at its buy price", summary = "Buy Out Lot", tags = {"lots"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lot bought successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Lot not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "The lot cannot be bought anymore",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Too many bids waiting to be processed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public CompletableFuture<BidResponse> buyout(
+            @Parameter(description = "The ID of the lot to buy out", required = true, example = "1001")
+            @PathVariable
+            @Pattern(regexp = "^(?!0+$)\\d{1,19}$", message = "The lot ID must be a positive number of type long")
+            String id) {
+        var user = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        return bidService.buyout(user.getUsername(), Long.parseLong(id))
+                .thenApply(lotMapper::mapToResponse);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.example.dto.item;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Schema(description = "Request object for fetching data of several items at once")
+@Setter
+@Getter
+public class ItemBatchRequest {
+
+    @ArraySchema(schema = @Schema(description = "Unique identifier of the item",
+            example = "123456789", pattern = "^(?!0+$)\\d{1,19}$"), maxItems = 200)
+    @NotEmpty(message = "The item IDs must not be empty")
+    @Size(max = 200, message = "At most 200 item IDs can be requested at once")
+    @JsonProperty("item_ids")
+    private List<@Pattern(regexp = "^(?!0+$)\\d{1,19}$",
+            message = "The item ID must be a positive number of type long") String> itemIds;
+
+}
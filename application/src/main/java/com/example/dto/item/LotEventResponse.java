@@ -0,0 +1,30 @@
+package com.example.dto.item;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Schema(description = "Response object representing a change of a lot")
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LotEventResponse {
+
+    @Schema(description = "The unique identifier of the changed lot", example = "1001")
+    @JsonProperty("lot_id")
+    private Long lotId;
+
+    @Schema(description = "The unique identifier of the item the lot sells", example = "123")
+    @JsonProperty("item_id")
+    private Long itemId;
+
+    @Schema(description = "The kind of the change", example = "PRICE_CHANGED")
+    private String type;
+
+    @Schema(description = "The new current price of the lot, only present for price changes", example = "1500")
+    @JsonProperty("cost_current")
+    private Long current;
+
+}
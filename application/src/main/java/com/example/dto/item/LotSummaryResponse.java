@@ -0,0 +1,28 @@
+package com.example.dto.item;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Schema(description = "Response object representing a summary of the active lots of an item")
+@Getter
+@Setter
+public class LotSummaryResponse {
+
+    @Schema(description = "Unique identifier for the item", example = "123")
+    @JsonProperty("item_id")
+    private Long itemId;
+
+    @Schema(description = "The number of active lots of the item", example = "12")
+    private Long active;
+
+    @Schema(description = "The lowest current cost among the active lots", example = "900")
+    @JsonProperty("min_cost_current")
+    private Long minCurrent;
+
+    @Schema(description = "The lowest buy cost among the active lots", example = "1500")
+    @JsonProperty("min_cost_buy")
+    private Long minBuy;
+
+}
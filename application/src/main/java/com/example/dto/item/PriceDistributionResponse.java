@@ -0,0 +1,24 @@
+package com.example.dto.item;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Schema(description = "Response object representing the distribution of the prices an item was sold for")
+@Getter
+@Setter
+public class PriceDistributionResponse {
+
+    @Schema(description = "The number of lots sold during the period", example = "42")
+    private Long count;
+
+    @Schema(description = "The 10th percentile of the sold prices", example = "900")
+    private Long p10;
+
+    @Schema(description = "The median of the sold prices", example = "1200")
+    private Long p50;
+
+    @Schema(description = "The 90th percentile of the sold prices", example = "1500")
+    private Long p90;
+
+}
@@ -0,0 +1,21 @@
+package com.example.dto.item;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Schema(description = "Response object representing the self-price of an item")
+@Getter
+@Setter
+public class SelfPriceResponse {
+
+    @Schema(description = "Unique identifier for the item", example = "123")
+    private Long id;
+
+    @Schema(description = "The cost of the item based on its components, null if it cannot be calculated",
+            example = "1500")
+    @JsonProperty("self_price")
+    private Long selfPrice;
+
+}
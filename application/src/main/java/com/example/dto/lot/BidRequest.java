@@ -0,0 +1,20 @@
+package com.example.dto.lot;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+
+@Schema(description = "Request object for placing a bid on a lot")
+@Getter
+@Setter
+public class BidRequest {
+
+    @Schema(description = "The offered price, higher than the current price and lower than the buy price",
+            example = "1500")
+    @NotNull(message = "The amount must not be empty")
+    @Positive(message = "The amount must be a positive number")
+    private Long amount;
+
+}
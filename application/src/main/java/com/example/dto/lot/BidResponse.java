@@ -0,0 +1,31 @@
+package com.example.dto.lot;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Schema(description = "Response object representing the state of a lot after a bid")
+@Getter
+@Setter
+public class BidResponse {
+
+    @Schema(description = "Unique identifier for the lot", example = "1001")
+    @JsonProperty("lot_id")
+    private long id;
+
+    @Schema(description = "Current cost of the lot", example = "1500")
+    @JsonProperty("cost_current")
+    private long current;
+
+    @Schema(description = "Buy cost of the lot", example = "4000")
+    @JsonProperty("cost_buy")
+    private long buy;
+
+    @Schema(description = "Login of the user who placed the highest bid", example = "bidder123")
+    private String bidder;
+
+    @Schema(description = "Status of the lot", example = "ACTIVE")
+    private String status;
+
+}
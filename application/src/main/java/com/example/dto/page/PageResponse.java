@@ -0,0 +1,40 @@
+package com.example.dto.page;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+@Schema(description = "A page of a paginated list")
+@Getter
+@JsonSerialize(using = PageResponseSerializer.class)
+public class PageResponse<T> {
+
+    @Schema(description = "The elements of the page")
+    private final List<T> content;
+
+    @Schema(description = "Page number of the page (starts from 0)", example = "0")
+    private final int page;
+
+    @Schema(description = "Requested page size", example = "20")
+    private final int size;
+
+    @Schema(description = "Total number of elements in all pages", example = "42")
+    private final long total;
+
+    @Schema(description = "Page number of the next page, absent on the last page", example = "1")
+    @JsonProperty("next_page")
+    private final Integer nextPage;
+
+    public PageResponse(List<T> content, Pageable pageable, long total) {
+        this.content = content;
+        this.page = pageable.getPageNumber();
+        this.size = pageable.getPageSize();
+        this.total = total;
+        this.nextPage = (long) (page + 1) * size < total ? page + 1 : null;
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.example.dto.page;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serialiser of {@link PageResponse} writing its fields directly instead of introspecting the class.
+ * The serialiser of the elements is looked up once per page rather than once per element.
+ */
+@SuppressWarnings("rawtypes")
+public class PageResponseSerializer extends StdSerializer<PageResponse> {
+
+    public PageResponseSerializer() {
+        super(PageResponse.class);
+    }
+
+    @Override
+    public void serialize(PageResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+
+        gen.writeArrayFieldStart("content");
+        JsonSerializer<Object> elementSerializer = null;
+        Class<?> elementClass = null;
+        for (Object element : value.getContent()) {
+            if (element == null) {
+                provider.defaultSerializeNull(gen);
+                continue;
+            }
+            if (element.getClass() != elementClass) {
+                elementClass = element.getClass();
+                elementSerializer = provider.findValueSerializer(elementClass);
+            }
+            elementSerializer.serialize(element, gen, provider);
+        }
+        gen.writeEndArray();
+
+        gen.writeNumberField("page", value.getPage());
+        gen.writeNumberField("size", value.getSize());
+        gen.writeNumberField("total", value.getTotal());
+        if (value.getNextPage() != null) {
+            gen.writeNumberField("next_page", value.getNextPage());
+        }
+
+        gen.writeEndObject();
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.example.event;
+
+import com.example.cache.ResponseCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the cached results of {@link com.example.service.ItemService} that a catalog change makes stale.
+ * Single items are evicted by their ID, while lists and results derived from the dependency graph are cleared.
+ * The serialised responses built from the same data are dropped from the {@link ResponseCache} as well.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogCacheEvictor {
+
+    private final CacheManager cacheManager;
+    private final ResponseCache responseCache;
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.getItems().isEmpty()) {
+            var item = cacheManager.getCache("item");
+            if (item != null) {
+                event.getItems().forEach(item::evict);
+            }
+            clear("items", "fav_items", "self_price", "dependencies");
+            responseCache.invalidate("items");
+        }
+        if (!event.getFavourites().isEmpty()) {
+            clear("fav_items", "is_fav", "fav_categories");
+        }
+        if (event.isCategories()) {
+            clear("categories", "fav_categories", "items", "fav_items");
+            responseCache.invalidate("items");
+            responseCache.invalidate("categories");
+        }
+        if (event.isDependencies()) {
+            clear("dependencies", "self_price");
+        }
+
+        log.info("Evicted caches for changed catalog");
+    }
+
+    private void clear(String... names) {
+        for (String name : names) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+}
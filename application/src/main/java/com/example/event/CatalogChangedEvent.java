@@ -0,0 +1,36 @@
+package com.example.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Event published when parts of the catalog have changed in the database,
+ * before the new versions become visible through the {@link com.example.store.CatalogVersionStore}.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogChangedEvent {
+
+    /**
+     * The IDs of the changed items.
+     */
+    private final Set<Long> items;
+
+    /**
+     * The IDs of the items that were added to or removed from favourites.
+     */
+    private final Set<Long> favourites;
+
+    /**
+     * Whether the categories of the items have changed.
+     */
+    private final boolean categories;
+
+    /**
+     * Whether the dependency graph has changed.
+     */
+    private final boolean dependencies;
+
+}
@@ -0,0 +1,201 @@
+package com.example.event;
+
+import com.example.mapper.ItemMapper;
+import com.example.model.entity.LotEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans the lot events received from the database out to the clients subscribed to the item of the lot.
+ * Every event is serialised once and then buffered per subscription; a subscriber whose buffer is full
+ * is disconnected instead of slowing down the others.
+ * <p>
+ * The buffers are drained by a small pool of platform threads even when virtual threads are enabled, because
+ * {@link SseEmitter#send} holds the emitter monitor while writing to the socket and would pin the carrier thread.
+ * A socket write has no timeout of its own, so a subscriber whose write stays blocked for longer than the write
+ * timeout is disconnected as well, and the pool is given a replacement thread for as long as the abandoned write
+ * holds its sender, up to a limit, so stalled clients cannot starve the others.
+ */
+@Slf4j
+@Component
+public class LotEventBroadcaster {
+
+    private final Map<Long, Set<LotSubscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Set<LotSubscription> stalled = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolTaskExecutor executor;
+    private final ItemMapper itemMapper;
+    private final ObjectMapper objectMapper;
+    private final Counter droppedSubscribers;
+
+    private final int bufferSize;
+    private final long timeout;
+    private final long writeTimeout;
+    private final int senderThreads;
+    private final int maxStalledSenders;
+
+    public LotEventBroadcaster(ItemMapper itemMapper,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${lot-events.buffer-size:32}") int bufferSize,
+                               @Value("${lot-events.timeout:PT30M}") Duration timeout,
+                               @Value("${lot-events.write-timeout:PT5S}") Duration writeTimeout,
+                               @Value("${lot-events.sender-threads:8}") int senderThreads,
+                               @Value("${lot-events.max-stalled-senders:32}") int maxStalledSenders) {
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(senderThreads);
+        this.executor.setMaxPoolSize(senderThreads + maxStalledSenders);
+        this.executor.setThreadNamePrefix("lot-event-sender-");
+        this.executor.setDaemon(true);
+        this.executor.initialize();
+
+        this.itemMapper = itemMapper;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout.toMillis();
+        this.writeTimeout = writeTimeout.toNanos();
+        this.senderThreads = senderThreads;
+        this.maxStalledSenders = maxStalledSenders;
+
+        Gauge.builder("lot_event_subscribers", subscribers, AtomicInteger::get)
+                .description("Number of clients subscribed to lot events")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("lot_event_subscribers_dropped")
+                .description("Number of subscribers disconnected for not keeping up with lot events")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Subscribes a new client to the lot events of an item.
+     *
+     * @param itemId the ID of the item
+     * @return the emitter the events are sent through
+     */
+    public SseEmitter subscribe(long itemId) {
+        var emitter = new SseEmitter(timeout);
+        var subscription = new LotSubscription(itemId, emitter, bufferSize, executor, this::unsubscribe);
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        subscriptions.compute(itemId, (id, itemSubscriptions) -> {
+            var result = itemSubscriptions == null ? ConcurrentHashMap.<LotSubscription>newKeySet() : itemSubscriptions;
+            result.add(subscription);
+            return result;
+        });
+        subscribers.incrementAndGet();
+
+        // closed before it was registered, so its own unsubscribe found nothing to remove
+        if (subscription.isClosed()) {
+            unsubscribe(subscription);
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Sends an event to every client subscribed to the item of the changed lot.
+     *
+     * @param event the lot event
+     */
+    public void publish(LotEvent event) {
+        var itemSubscriptions = subscriptions.get(event.getItemId());
+        if (itemSubscriptions == null) {
+            return;
+        }
+
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(itemMapper.mapToResponse(event));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialise the event of lot {}", event.getLotId(), e);
+            return;
+        }
+
+        for (var subscription : itemSubscriptions) {
+            offer(subscription, SseEmitter.event()
+                    .id(String.valueOf(event.getLotId()))
+                    .name(event.getType().name())
+                    .data(data, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Sends a comment to every subscriber so that idle connections are not closed by proxies
+     * and disconnected clients are detected.
+     */
+    @Scheduled(fixedRateString = "${lot-events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (var itemSubscriptions : subscriptions.values()) {
+            for (var subscription : itemSubscriptions) {
+                offer(subscription, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    /**
+     * Disconnects the subscribers whose write has been blocked for longer than the write timeout and resizes the
+     * sender pool so that every write still blocked on a disconnected subscriber is matched by a spare thread.
+     */
+    @Scheduled(fixedRateString = "${lot-events.write-timeout:PT5S}")
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (var itemSubscriptions : subscriptions.values()) {
+            for (var subscription : itemSubscriptions) {
+                if (subscription.isStalled(now, writeTimeout)) {
+                    droppedSubscribers.increment();
+                    log.debug("Dropping a stalled subscriber of item {}", subscription.getItemId());
+
+                    subscription.close();
+                    stalled.add(subscription);
+                }
+            }
+        }
+
+        stalled.removeIf(subscription -> !subscription.isSending());
+        executor.setCorePoolSize(senderThreads + Math.min(stalled.size(), maxStalledSenders));
+    }
+
+    private void offer(LotSubscription subscription, SseEmitter.SseEventBuilder event) {
+        if (!subscription.offer(event)) {
+            droppedSubscribers.increment();
+            log.debug("Dropping a slow subscriber of item {}", subscription.getItemId());
+
+            subscription.close();
+        }
+    }
+
+    private void unsubscribe(LotSubscription subscription) {
+        subscriptions.computeIfPresent(subscription.getItemId(), (id, itemSubscriptions) -> {
+            if (itemSubscriptions.remove(subscription)) {
+                subscribers.decrementAndGet();
+            }
+            return itemSubscriptions.isEmpty() ? null : itemSubscriptions;
+        });
+    }
+
+}
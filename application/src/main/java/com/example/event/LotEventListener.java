@@ -0,0 +1,147 @@
+package com.example.event;
+
+import com.example.model.entity.LotEvent;
+import com.example.model.enumeration.LotEventType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Receives the lot events the database triggers publish on the {@value #CHANNEL} channel and hands them over to the
+ * {@link LotEventBroadcaster}. The listener holds its own connection outside the pool, since a listening connection
+ * is never returned, and reconnects with an exponential backoff whenever it is lost. Events published while the
+ * connection is down are not replayed.
+ */
+@Slf4j
+@Component
+public class LotEventListener {
+
+    public static final String CHANNEL = "lot_events";
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final LotEventBroadcaster broadcaster;
+    private final ObjectMapper objectMapper;
+
+    private final int pollTimeout;
+    private final long maxBackoff;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public LotEventListener(DataSourceProperties dataSourceProperties,
+                            LotEventBroadcaster broadcaster,
+                            ObjectMapper objectMapper,
+                            @Value("${lot-events.poll-timeout:PT10S}") Duration pollTimeout,
+                            @Value("${lot-events.max-backoff:PT30S}") Duration maxBackoff) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.broadcaster = broadcaster;
+        this.objectMapper = objectMapper;
+        this.pollTimeout = (int) pollTimeout.toMillis();
+        this.maxBackoff = maxBackoff.toMillis();
+    }
+
+    /**
+     * Starts listening once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        thread = new Thread(this::listen, "lot-event-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops listening and closes the connection.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+        long backoff = 1000;
+
+        while (running) {
+            try (var connection = connect()) {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for lot events");
+                backoff = 1000;
+
+                var pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    var notifications = pgConnection.getNotifications(pollTimeout);
+                    if (notifications == null || notifications.length == 0) {
+                        if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                            throw new SQLException("The lot events connection is no longer valid");
+                        }
+                        continue;
+                    }
+
+                    for (var notification : notifications) {
+                        dispatch(notification);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+
+                log.warn("Lost the lot events connection, reconnecting in {} ms", backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, maxBackoff);
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    private void dispatch(PGNotification notification) {
+        try {
+            var payload = objectMapper.readTree(notification.getParameter());
+            var current = payload.get("cost_current");
+
+            broadcaster.publish(new LotEvent(
+                    payload.get("lot_id").asLong(),
+                    payload.get("item_id").asLong(),
+                    LotEventType.valueOf(payload.get("type").asText()),
+                    current == null || current.isNull() ? null : current.asLong()
+            ));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Skipping a malformed lot event: {}", notification.getParameter(), e);
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.example.event;
+
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * A single client subscribed to the lot events of an item.
+ * Events are buffered in a bounded queue and written to the client by at most one task at a time, so an idle
+ * subscription holds no thread and a slow one cannot hold more than its buffer.
+ * <p>
+ * The start of the write in flight is tracked so that a client that stops reading can be detected while its
+ * write is still blocked. {@link SseEmitter} holds its monitor for the whole write, so completing the emitter
+ * is left to the sending thread while a write is in flight; closing never waits for a stalled client.
+ */
+public class LotSubscription {
+
+    @Getter
+    private final long itemId;
+
+    @Getter
+    private final SseEmitter emitter;
+
+    private final Queue<SseEmitter.SseEventBuilder> queue;
+    private final Executor executor;
+    private final Consumer<LotSubscription> onClose;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private volatile long sendStartedAt;
+    private volatile boolean sending;
+
+    public LotSubscription(long itemId, SseEmitter emitter, int bufferSize, Executor executor,
+                           Consumer<LotSubscription> onClose) {
+        this.itemId = itemId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.executor = executor;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Buffers an event and schedules it to be written to the client.
+     *
+     * @param event the event to send
+     * @return false if the buffer is full and the event was not accepted, true otherwise
+     */
+    public boolean offer(SseEmitter.SseEventBuilder event) {
+        if (closed.get()) {
+            return true;
+        }
+
+        if (!queue.offer(event)) {
+            return false;
+        }
+
+        schedule();
+        return true;
+    }
+
+    /**
+     * Completes the response and releases the subscription. Calling it more than once has no effect.
+     * If a write is in flight, the response is completed by the sending thread once the write returns.
+     */
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            queue.clear();
+            onClose.accept(this);
+            completeIfIdle();
+        }
+    }
+
+    /**
+     * Indicates whether the subscription has been closed.
+     *
+     * @return true if the subscription is closed, false otherwise
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Indicates whether a write to the client is in flight.
+     *
+     * @return true if a write is in flight, false otherwise
+     */
+    public boolean isSending() {
+        return sending;
+    }
+
+    /**
+     * Indicates whether the write in flight, if any, has been blocked for longer than the given timeout.
+     *
+     * @param now          the current value of {@link System#nanoTime()}
+     * @param timeoutNanos the write timeout in nanoseconds
+     * @return true if a write has been in flight for longer than the timeout, false otherwise
+     */
+    public boolean isStalled(long now, long timeoutNanos) {
+        return sending && now - sendStartedAt > timeoutNanos;
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!closed.get() && (event = queue.poll()) != null) {
+                sendStartedAt = System.nanoTime();
+                sending = true;
+                try {
+                    if (!closed.get()) {
+                        emitter.send(event);
+                    }
+                } finally {
+                    sending = false;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            close();
+        } finally {
+            draining.set(false);
+        }
+
+        if (closed.get()) {
+            completeIfIdle();
+        } else if (!queue.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private void completeIfIdle() {
+        if (!sending && completed.compareAndSet(false, true)) {
+            emitter.complete();
+        }
+    }
+
+}
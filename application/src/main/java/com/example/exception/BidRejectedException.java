@@ -0,0 +1,18 @@
+package com.example.exception;
+
+/**
+ * Exception thrown when a bid or a buyout cannot be applied to the current state of a lot.
+ * This is an unchecked exception (extends {@link RuntimeException}).
+ */
+public class BidRejectedException extends RuntimeException {
+
+    /**
+     * Creates a new {@code BidRejectedException} with a custom message.
+     *
+     * @param message the detail message explaining why the bid was rejected
+     */
+    public BidRejectedException(String message) {
+        super(message);
+    }
+
+}
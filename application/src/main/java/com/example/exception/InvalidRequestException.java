@@ -0,0 +1,18 @@
+package com.example.exception;
+
+/**
+ * Exception thrown when a request is well-formed but its values are inconsistent with each other.
+ * This is an unchecked exception (extends {@link RuntimeException}).
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    /**
+     * Creates a new {@code InvalidRequestException} with a custom message.
+     *
+     * @param message the detail message explaining why the request is invalid
+     */
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.example.exception;
+
+/**
+ * Exception thrown when a request is refused because the service has no capacity left to process it.
+ * This is an unchecked exception (extends {@link RuntimeException}).
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    /**
+     * Creates a new {@code ServiceOverloadedException} with a custom message.
+     *
+     * @param message the detail message explaining which capacity has been exhausted
+     */
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+
+}
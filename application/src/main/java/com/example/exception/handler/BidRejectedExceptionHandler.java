@@ -0,0 +1,25 @@
+package com.example.exception.handler;
+
+import com.example.dto.error.ErrorResponse;
+import com.example.exception.BidRejectedException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BidRejectedExceptionHandler {
+
+    @ExceptionHandler(value = BidRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleBidRejectedException(BidRejectedException exception) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "409",
+                exception.getMessage()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+}
@@ -6,6 +6,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+/**
+ * Fallback for the exceptions no other handler takes. Advices are tried in order, and the first one with a matching
+ * method wins whatever the exception type, so the specific handlers are ordered before this one.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -2,12 +2,15 @@ package com.example.exception.handler;
 
 import com.example.dto.error.ErrorResponse;
 import com.example.exception.EntityNotFoundException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 @RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class NotFoundExceptionHandler {
 
     @ExceptionHandler(value = EntityNotFoundException.class)
@@ -0,0 +1,28 @@
+package com.example.exception.handler;
+
+import com.example.dto.error.ErrorResponse;
+import com.example.exception.ServiceOverloadedException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceOverloadedExceptionHandler {
+
+    @ExceptionHandler(value = ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloadedException(ServiceOverloadedException exception) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "503",
+                exception.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.example.filter;
+
+import com.example.dto.error.ErrorResponse;
+import com.example.metrics.ConcurrencyLimit;
+import com.example.metrics.ConcurrencyLimitRejected;
+import com.example.utils.AdaptiveConcurrencyLimit;
+import com.example.utils.AdaptiveConcurrencyLimit.Priority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Filter shedding load once the {@link AdaptiveConcurrencyLimit} is reached, so that a slow database makes extra
+ * requests fail fast with a 503 instead of queueing in Tomcat until everything times out. It runs before the security
+ * chain, so refused requests cost neither token verification nor password hashing.
+ * <p>
+ * Authentication and item details are critical, analytics are the first to be refused. Exports, event streams and
+ * the actuator are long-lived or operational and are never limited.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Pattern ITEM_DETAIL = Pattern.compile("/items/\\d+");
+    private static final Pattern LOT_EVENTS = Pattern.compile("/items/\\d+/lots/events");
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final ConcurrencyLimitRejected concurrencyLimitRejected;
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimit concurrencyLimit,
+                                  ConcurrencyLimitRejected concurrencyLimitRejected,
+                                  ObjectMapper objectMapper,
+                                  @Value("${concurrency-limit.enabled:true}") boolean enabled,
+                                  @Value("${concurrency-limit.initial-limit:20}") int initialLimit,
+                                  @Value("${concurrency-limit.min-limit:10}") int minLimit,
+                                  @Value("${concurrency-limit.max-limit:200}") int maxLimit,
+                                  @Value("${concurrency-limit.smoothing:0.2}") double smoothing,
+                                  @Value("${concurrency-limit.tolerance:1.5}") double tolerance,
+                                  @Value("${concurrency-limit.window:PT1S}") Duration window,
+                                  @Value("${concurrency-limit.window-samples:10}") int windowSamples) {
+        this.concurrencyLimitRejected = concurrencyLimitRejected;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, smoothing, tolerance,
+                window, windowSamples, System::nanoTime);
+
+        concurrencyLimit.monitor(limit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+
+        var path = path(request);
+        return path.startsWith("/export/") || path.startsWith("/actuator") || LOT_EVENTS.matcher(path).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        var priority = priority(request);
+        if (!limit.tryAcquire(priority)) {
+            concurrencyLimitRejected.increment(priority);
+            reject(response);
+
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(start));
+            } else {
+                limit.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static Priority priority(HttpServletRequest request) {
+        var path = path(request);
+
+        if (path.startsWith("/auth/")
+                || "GET".equals(request.getMethod()) && ITEM_DETAIL.matcher(path).matches()) {
+            return Priority.CRITICAL;
+        }
+        if (path.equals("/items/items-for-period") || path.equals("/items/price-distribution")) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("503", "Too many requests in flight, try again later"));
+    }
+
+    /**
+     * Frees the slot of an asynchronous request once its response is complete.
+     */
+    private class ReleasingListener implements AsyncListener {
+
+        private final long start;
+
+        ReleasingListener(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limit.release(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+    }
+
+}
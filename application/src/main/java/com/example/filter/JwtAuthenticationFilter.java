@@ -1,28 +1,50 @@
 package com.example.filter;
 
+import com.example.exception.EntityNotFoundException;
+import com.example.model.entity.User;
+import com.example.model.enumeration.Role;
+import com.example.store.TokenRevocationStore;
 import com.example.utils.JwtUtils;
+import com.example.utils.JwtVerifier;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Objects;
+import java.util.Set;
 
+/**
+ * Filter authenticating requests by their bearer access token. The principal is built from the claims of the token
+ * alone, with revoked tokens rejected through the {@link TokenRevocationStore}; the user is only looked up
+ * while the store is still loading, and for tokens without an issue time, which cannot be checked against a
+ * revocation the store may not have, such as that of a user deleted before revocations were recorded. The logins listed in {@code security.admin-logins} are also granted the
+ * {@link Role#ADMIN} role, which the actuator endpoints exposing internals require.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtils jwtUtils;
+    private final JwtVerifier jwtVerifier;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationStore tokenRevocationStore;
+
+    @Value("${security.admin-logins:}")
+    private Set<String> adminLogins;
 
     @Override
     protected void doFilterInternal(
@@ -39,14 +61,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         var jwt = authHeader.substring(7);
-        if (jwtUtils.isAccessTokenValid(jwt)) {
-            var username = jwtUtils.extractAccessUsername(jwt);
+        var claims = jwtVerifier.verify(jwt);
+        if (claims.isPresent()) {
+            var username = claims.get().getSubject();
             if (!Objects.isNull(username) && Objects.isNull(SecurityContextHolder.getContext().getAuthentication())) {
-                var userDetails = this.userDetailsService.loadUserByUsername(username);
+                var issuedAt = JwtUtils.getIssuedAtMillis(claims.get());
+                var ready = tokenRevocationStore.isReady();
+                if (ready && tokenRevocationStore.isRevoked(username, issuedAt)) {
+                    filterChain.doFilter(request, response);
+
+                    return;
+                }
+
+                UserDetails userDetails;
+                if (ready && issuedAt != null) {
+                    userDetails = new User(username, null, null, null);
+                } else {
+                    try {
+                        userDetails = this.userDetailsService.loadUserByUsername(username);
+                    } catch (UsernameNotFoundException | EntityNotFoundException e) {
+                        filterChain.doFilter(request, response);
+
+                        return;
+                    }
+                }
+                var authorities = new ArrayList<GrantedAuthority>(userDetails.getAuthorities());
+                if (adminLogins.contains(username)) {
+                    authorities.add(Role.ADMIN);
+                }
                 var authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
-                        userDetails.getAuthorities()
+                        authorities
                 );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
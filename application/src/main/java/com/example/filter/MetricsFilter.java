@@ -1,44 +1,98 @@
 package com.example.filter;
 
 import com.example.metrics.HttpRequestDuration;
-import com.example.metrics.HttpRequestsErrors;
-import com.example.metrics.HttpRequestsTotal;
-import jakarta.servlet.*;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
+import java.util.Objects;
 
+/**
+ * Filter recording the duration of every request by the route template it was matched to, its method and the class
+ * of its status. Templates rather than raw URIs keep the number of series bounded. The filter runs before the
+ * {@link ConcurrencyLimitFilter} and the security chain, so shed and unauthorised requests are recorded too, under
+ * the route {@code UNMATCHED}; asynchronous requests are recorded once their response is complete.
+ */
 @Component
 @RequiredArgsConstructor
-public class MetricsFilter implements Filter {
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 2)
+public class MetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNMATCHED = "UNMATCHED";
 
-    private final HttpRequestsTotal httpRequestsTotal;
-    private final HttpRequestsErrors httpRequestsErrors;
     private final HttpRequestDuration httpRequestDuration;
 
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
-            throws IOException, ServletException {
-        if (request instanceof HttpServletRequest && response instanceof HttpServletResponse httpResponse) {
-            httpRequestsTotal.increment();
-
-            httpRequestDuration.record(() -> {
-                try {
-                    chain.doFilter(request, response);
-                } catch (IOException | ServletException e) {
-                    throw new RuntimeException(e);
-                }
-            });
-
-            if (httpResponse.getStatus() >= 400) {
-                httpRequestsErrors.increment();
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new RecordingListener(request, response, start));
+            } else {
+                record(request, failed ? HttpStatus.INTERNAL_SERVER_ERROR.value() : response.getStatus(), start);
             }
-        } else {
-            chain.doFilter(request, response);
         }
     }
 
+    private void record(HttpServletRequest request, int status, long start) {
+        var route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        httpRequestDuration.record(
+                Objects.isNull(route) ? UNMATCHED : route.toString(),
+                request.getMethod(),
+                status,
+                System.nanoTime() - start
+        );
+    }
+
+    /**
+     * Records an asynchronous request once its response is complete.
+     */
+    @RequiredArgsConstructor
+    private class RecordingListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, response.getStatus(), start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+    }
+
 }
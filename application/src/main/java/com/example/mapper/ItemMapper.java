@@ -5,6 +5,10 @@ import com.example.model.entity.Dependency;
 import com.example.model.entity.Item;
 import com.example.model.entity.ItemsForPeriod;
 import com.example.model.entity.Lot;
+import com.example.model.entity.LotSummary;
+import com.example.model.entity.LotEvent;
+import com.example.model.entity.PriceDistribution;
+import com.example.model.entity.SelfPrice;
 import org.mapstruct.Mapper;
 
 @Mapper(componentModel = "spring")
@@ -20,4 +24,12 @@ public interface ItemMapper {
 
     ItemsForPeriodResponse mapToResponse(ItemsForPeriod items);
 
+    PriceDistributionResponse mapToResponse(PriceDistribution distribution);
+
+    LotEventResponse mapToResponse(LotEvent event);
+
+    SelfPriceResponse mapToResponse(SelfPrice selfPrice);
+
+    LotSummaryResponse mapToResponse(LotSummary summary);
+
 }
@@ -0,0 +1,12 @@
+package com.example.mapper;
+
+import com.example.dto.lot.BidResponse;
+import com.example.model.entity.LotState;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface LotMapper {
+
+    BidResponse mapToResponse(LotState lot);
+
+}
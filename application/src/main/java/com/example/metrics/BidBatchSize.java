@@ -0,0 +1,22 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BidBatchSize {
+
+    private final DistributionSummary bidBatchSize;
+
+    public BidBatchSize(MeterRegistry meterRegistry) {
+        this.bidBatchSize = DistributionSummary.builder("bid_batch_size")
+                .description("Number of lots written to the database per bidding group commit")
+                .register(meterRegistry);
+    }
+
+    public void record(int lots) {
+        bidBatchSize.record(lots);
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BidsTotal {
+
+    private final Counter acceptedTotal;
+    private final Counter rejectedTotal;
+    private final Counter conflictsTotal;
+
+    public BidsTotal(MeterRegistry meterRegistry) {
+        this.acceptedTotal = counter(meterRegistry, "accepted");
+        this.rejectedTotal = counter(meterRegistry, "rejected");
+        this.conflictsTotal = counter(meterRegistry, "conflict");
+    }
+
+    public void accepted(int count) {
+        acceptedTotal.increment(count);
+    }
+
+    public void rejected() {
+        rejectedTotal.increment();
+    }
+
+    public void conflicts(int count) {
+        conflictsTotal.increment(count);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("bids_total")
+                .description("Total bids processed by the bidding engine")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+}
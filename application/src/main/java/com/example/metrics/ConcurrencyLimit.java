@@ -0,0 +1,26 @@
+package com.example.metrics;
+
+import com.example.utils.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ConcurrencyLimit {
+
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrencyLimit(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void monitor(AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("concurrency_limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current number of requests allowed in flight at once")
+                .register(meterRegistry);
+        Gauge.builder("concurrency_limit_in_flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Number of requests currently in flight under the concurrency limit")
+                .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.example.metrics;
+
+import com.example.utils.AdaptiveConcurrencyLimit.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class ConcurrencyLimitRejected {
+
+    private final Map<Priority, Counter> concurrencyLimitRejectedTotal = new EnumMap<>(Priority.class);
+
+    public ConcurrencyLimitRejected(MeterRegistry meterRegistry) {
+        for (var priority : Priority.values()) {
+            concurrencyLimitRejectedTotal.put(priority, Counter.builder("concurrency_limit_rejected_total")
+                    .description("Total requests rejected because the concurrency limit was reached")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public void increment(Priority priority) {
+        concurrencyLimitRejectedTotal.get(priority).increment();
+    }
+
+}
@@ -1,28 +1,47 @@
 package com.example.metrics;
 
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 
-import java.util.function.Supplier;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Component
 public class HttpRequestDuration {
 
-    private final Timer httpRequestDuration;
+    /**
+     * Tag of the methods outside the standard ones, which the container accepts as any token.
+     */
+    private static final String OTHER_METHOD = "OTHER";
+    private static final Set<String> METHODS = Arrays.stream(HttpMethod.values())
+            .map(HttpMethod::name)
+            .collect(Collectors.toUnmodifiableSet());
 
-    public HttpRequestDuration(MeterRegistry meterRegistry) {
-        this.httpRequestDuration = Timer.builder("http_request_duration_seconds")
-                .description("Duration of HTTP requests")
-                .register(meterRegistry);
-    }
+    private final Meter.MeterProvider<Timer> httpRequestDuration;
 
-    public void record(Runnable runnable) {
-        httpRequestDuration.record(runnable);
+    public HttpRequestDuration(MeterRegistry meterRegistry,
+                               @Value("${http-metrics.slo:10ms,25ms,50ms,100ms,250ms,500ms,1s,2500ms,5s}")
+                               Duration[] slo) {
+        this.httpRequestDuration = Timer.builder("http_request_duration_seconds")
+                .description("Duration of HTTP requests by route, method and status class")
+                .serviceLevelObjectives(slo)
+                .withRegistry(meterRegistry);
     }
 
-    public <T> T record(Supplier<T> query) {
-        return httpRequestDuration.record(query);
+    public void record(String route, String method, int status, long durationNanos) {
+        httpRequestDuration.withTags(Tags.of(
+                "route", route,
+                "method", METHODS.contains(method) ? method : OTHER_METHOD,
+                "status", status / 100 + "xx"
+        )).record(durationNanos, TimeUnit.NANOSECONDS);
     }
 
 }
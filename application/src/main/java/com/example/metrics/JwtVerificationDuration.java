@@ -0,0 +1,41 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class JwtVerificationDuration {
+
+    private final Timer cachedTimer;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+
+    public JwtVerificationDuration(MeterRegistry meterRegistry) {
+        this.cachedTimer = timer(meterRegistry, "cached");
+        this.validTimer = timer(meterRegistry, "valid");
+        this.invalidTimer = timer(meterRegistry, "invalid");
+    }
+
+    public void cached(long nanos) {
+        cachedTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void valid(long nanos) {
+        validTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void invalid(long nanos) {
+        invalidTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt_verification_duration_seconds")
+                .description("Access token verification duration")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Component
+public class PasswordHashingQueueSize {
+
+    private final MeterRegistry meterRegistry;
+
+    public PasswordHashingQueueSize(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void monitor(ThreadPoolExecutor executor) {
+        Gauge.builder("password_hashing_queue_size", executor, pool -> pool.getQueue().size())
+                .description("Number of password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+    }
+
+}
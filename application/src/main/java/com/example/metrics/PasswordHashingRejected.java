@@ -0,0 +1,22 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PasswordHashingRejected {
+
+    private final Counter passwordHashingRejectedTotal;
+
+    public PasswordHashingRejected(MeterRegistry meterRegistry) {
+        this.passwordHashingRejectedTotal = Counter.builder("password_hashing_rejected_total")
+                .description("Total password hashing tasks rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public void increment() {
+        passwordHashingRejectedTotal.increment();
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class PasswordHashingWait {
+
+    private final Timer passwordHashingWaitTimer;
+
+    public PasswordHashingWait(MeterRegistry meterRegistry) {
+        this.passwordHashingWaitTimer = Timer.builder("password_hashing_wait_seconds")
+                .description("Time password hashing tasks spend queued before running")
+                .register(meterRegistry);
+    }
+
+    public void record(long nanos) {
+        passwordHashingWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+}
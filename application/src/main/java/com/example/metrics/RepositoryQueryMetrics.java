@@ -0,0 +1,187 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.RepositoryDefinition;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Post-processor instrumenting every repository, whether a Spring Data interface declared with
+ * {@link RepositoryDefinition} or a {@link Repository} class running its own SQL, so that each query records
+ * {@code db_query_duration_seconds} and {@code db_query_rows} tagged by repository and method without any code
+ * in the services. Rows are counted from the returned collection, optional or array, and for streaming methods
+ * from the items handed to their {@link Consumer} arguments.
+ */
+@Component
+public class RepositoryQueryMetrics implements BeanPostProcessor {
+
+    private static final double[] ROWS_BUCKETS = {1, 10, 100, 1_000, 10_000, 100_000};
+
+    private final Map<Method, QueryMeters> meters = new ConcurrentHashMap<>();
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Duration[] slo;
+
+    public RepositoryQueryMetrics(ObjectProvider<MeterRegistry> meterRegistry,
+                                  @Value("${db-metrics.slo:1ms,5ms,10ms,25ms,50ms,100ms,250ms,500ms,1s}")
+                                  Duration[] slo) {
+        this.meterRegistry = meterRegistry;
+        this.slo = slo;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        var repository = repositoryName(bean);
+        if (repository == null) {
+            return bean;
+        }
+
+        var interceptor = new QueryInterceptor(repository);
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+
+        var proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(!AopUtils.isJdkDynamicProxy(bean));
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(ClassUtils.getDefaultClassLoader());
+    }
+
+    private static String repositoryName(Object bean) {
+        for (Class<?> type : ClassUtils.getAllInterfaces(bean)) {
+            if (type.isAnnotationPresent(RepositoryDefinition.class)) {
+                return type.getSimpleName();
+            }
+        }
+
+        var targetClass = AopUtils.getTargetClass(bean);
+        if (AnnotatedElementUtils.hasAnnotation(targetClass, Repository.class)) {
+            return ClassUtils.getUserClass(targetClass).getSimpleName();
+        }
+        return null;
+    }
+
+    private QueryMeters meters(String repository, Method method) {
+        return meters.computeIfAbsent(method, key -> {
+            var registry = meterRegistry.getObject();
+
+            return new QueryMeters(
+                    Timer.builder("db_query_duration_seconds")
+                            .description("Duration of database queries by repository and method")
+                            .tags("repository", repository, "method", method.getName())
+                            .serviceLevelObjectives(slo)
+                            .register(registry),
+                    DistributionSummary.builder("db_query_rows")
+                            .description("Rows returned by database queries by repository and method")
+                            .tags("repository", repository, "method", method.getName())
+                            .serviceLevelObjectives(ROWS_BUCKETS)
+                            .register(registry)
+            );
+        });
+    }
+
+    @RequiredArgsConstructor
+    private static class QueryMeters {
+
+        private final Timer duration;
+        private final DistributionSummary rows;
+
+    }
+
+    /**
+     * Interceptor timing a repository call and counting the rows it returned.
+     */
+    private class QueryInterceptor implements MethodInterceptor {
+
+        private final String repository;
+
+        QueryInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(@NonNull MethodInvocation invocation) throws Throwable {
+            var method = invocation.getMethod();
+            if (method.getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+
+            var queryMeters = meters(repository, method);
+
+            var arguments = invocation.getArguments();
+            var streamed = new AtomicLong();
+            boolean streaming = false;
+            for (int i = 0; i < arguments.length; i++) {
+                if (arguments[i] instanceof Consumer<?> consumer) {
+                    var delegate = (Consumer<Object>) consumer;
+                    arguments[i] = (Consumer<Object>) row -> {
+                        streamed.incrementAndGet();
+                        delegate.accept(row);
+                    };
+                    streaming = true;
+                }
+            }
+
+            long start = System.nanoTime();
+            try {
+                var result = invocation.proceed();
+
+                long rows = streaming ? streamed.get() : rows(result);
+                if (rows >= 0) {
+                    queryMeters.rows.record(rows);
+                }
+                return result;
+            } finally {
+                queryMeters.duration.record(Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+
+        private static long rows(Object result) {
+            if (result == null) {
+                return -1;
+            }
+            if (result instanceof Collection<?> collection) {
+                return collection.size();
+            }
+            if (result instanceof Optional<?> optional) {
+                return optional.isPresent() ? 1 : 0;
+            }
+            if (result instanceof int[] counts) {
+                return Arrays.stream(counts).filter(count -> count > 0).count();
+            }
+            if (result.getClass().isArray()) {
+                return Array.getLength(result);
+            }
+            return 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.example.model.entity;
+
+import com.example.model.enumeration.CatalogScope;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents the version of a part of the catalog, bumped by the database triggers on every change.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogVersion {
+
+    /**
+     * The versioned part of the catalog.
+     */
+    private CatalogScope scope;
+
+    /**
+     * The ID of the item for per-item scopes, 0 otherwise.
+     */
+    private long itemId;
+
+    /**
+     * The version, unique across all scopes.
+     */
+    private long version;
+
+}
@@ -0,0 +1,39 @@
+package com.example.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Represents the aggregated sales of an item on a single day, including the maximum cost and quantity.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailySales {
+
+    /**
+     * The ID of the sold item.
+     */
+    private long itemId;
+
+    /**
+     * The day of the sales.
+     */
+    private LocalDate day;
+
+    /**
+     * The maximum cost the item was sold for on that day.
+     */
+    private long maxCostBuy;
+
+    /**
+     * The number of lots of the item sold on that day.
+     */
+    private long quantity;
+
+}
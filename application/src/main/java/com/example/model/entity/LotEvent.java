@@ -0,0 +1,38 @@
+package com.example.model.entity;
+
+import com.example.model.enumeration.LotEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents a change of a lot published by the database triggers.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LotEvent {
+
+    /**
+     * The ID of the changed lot.
+     */
+    private long lotId;
+
+    /**
+     * The ID of the item the lot sells.
+     */
+    private long itemId;
+
+    /**
+     * The kind of the change.
+     */
+    private LotEventType type;
+
+    /**
+     * The new current price of the lot, only present for price changes.
+     */
+    private Long current;
+
+}
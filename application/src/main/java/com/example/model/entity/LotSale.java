@@ -0,0 +1,34 @@
+package com.example.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a single sold lot, including the sold item, the day of the sale and the cost it was sold for.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LotSale {
+
+    /**
+     * The ID of the sold item.
+     */
+    private long itemId;
+
+    /**
+     * The day of the sale.
+     */
+    private LocalDate day;
+
+    /**
+     * The cost the lot was sold for.
+     */
+    private long costBuy;
+
+}
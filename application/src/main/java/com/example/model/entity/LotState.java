@@ -0,0 +1,64 @@
+package com.example.model.entity;
+
+import com.example.model.enumeration.LotStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents the auction state of a lot as seen by the bidding engine.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LotState {
+
+    /**
+     * The unique ID of the lot.
+     */
+    private long id;
+
+    /**
+     * The login of the vendor who created the lot.
+     */
+    private String vendor;
+
+    /**
+     * The current price of the lot.
+     */
+    private long current;
+
+    /**
+     * The buy price of the lot.
+     */
+    private long buy;
+
+    /**
+     * The login of the user who placed the highest bid, if any.
+     */
+    private String bidder;
+
+    /**
+     * The end time of the lot.
+     */
+    private LocalDateTime end;
+
+    /**
+     * The status of the lot.
+     */
+    private LotStatus status;
+
+    /**
+     * Creates a copy of the state.
+     *
+     * @return a new state with the same values
+     */
+    public LotState copy() {
+        return new LotState(id, vendor, current, buy, bidder, end, status);
+    }
+
+}
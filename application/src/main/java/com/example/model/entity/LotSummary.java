@@ -0,0 +1,37 @@
+package com.example.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents a summary of the active lots of an item.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LotSummary {
+
+    /**
+     * The ID of the item.
+     */
+    private Long itemId;
+
+    /**
+     * The number of active lots of the item.
+     */
+    private Long active;
+
+    /**
+     * The lowest current price among the active lots, or {@code null} if there are none.
+     */
+    private Long minCurrent;
+
+    /**
+     * The lowest buy price among the active lots, or {@code null} if there are none.
+     */
+    private Long minBuy;
+
+}
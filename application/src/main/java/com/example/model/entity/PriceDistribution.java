@@ -0,0 +1,37 @@
+package com.example.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents the distribution of the costs an item was sold for during a period.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceDistribution {
+
+    /**
+     * The number of sold lots in the period.
+     */
+    private Long count;
+
+    /**
+     * The 10th percentile of the sold costs.
+     */
+    private Long p10;
+
+    /**
+     * The median of the sold costs.
+     */
+    private Long p50;
+
+    /**
+     * The 90th percentile of the sold costs.
+     */
+    private Long p90;
+
+}
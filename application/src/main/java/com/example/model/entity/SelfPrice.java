@@ -0,0 +1,27 @@
+package com.example.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents the self-price of an item, the cheapest way to obtain it from active lots.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SelfPrice {
+
+    /**
+     * The ID of the item.
+     */
+    private Long id;
+
+    /**
+     * The self-price of the item, or {@code null} if it cannot be calculated.
+     */
+    private Long selfPrice;
+
+}
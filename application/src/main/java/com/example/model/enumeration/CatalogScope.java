@@ -0,0 +1,28 @@
+package com.example.model.enumeration;
+
+/**
+ * Enum representing the parts of the catalog that are versioned independently.
+ */
+public enum CatalogScope {
+
+    /**
+     * A single item, versioned by its ID.
+     */
+    ITEM,
+
+    /**
+     * The users who marked an item as a favourite, versioned by the ID of the item.
+     */
+    FAVOURITE,
+
+    /**
+     * The categories of all items.
+     */
+    CATEGORIES,
+
+    /**
+     * The dependency graph of all items.
+     */
+    DEPENDENCIES
+
+}
@@ -0,0 +1,28 @@
+package com.example.model.enumeration;
+
+/**
+ * Enum representing the kinds of changes a lot goes through during an auction.
+ */
+public enum LotEventType {
+
+    /**
+     * The lot has been put up for auction.
+     */
+    CREATED,
+
+    /**
+     * The current price of the lot has changed.
+     */
+    PRICE_CHANGED,
+
+    /**
+     * The lot has been bought.
+     */
+    SOLD,
+
+    /**
+     * The lot has ended without being bought.
+     */
+    EXPIRED
+
+}
@@ -0,0 +1,23 @@
+package com.example.model.enumeration;
+
+/**
+ * Enum representing the states of a lot stored in {@code lot_status_information}.
+ */
+public enum LotStatus {
+
+    /**
+     * The lot accepts bids.
+     */
+    ACTIVE,
+
+    /**
+     * The lot has been bought.
+     */
+    SOLD,
+
+    /**
+     * The lot has ended without being bought.
+     */
+    EXPIRED
+
+}
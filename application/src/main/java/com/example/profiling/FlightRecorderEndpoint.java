@@ -0,0 +1,100 @@
+package com.example.profiling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Actuator endpoint recording the application with the JDK Flight Recorder through {@link FlightRecordings}.
+ * Posting to {@code /actuator/jfr} streams the {@code .jfr} file back and posting to {@code /actuator/jfr/summary}
+ * returns its hotspots as JSON. Both take the {@code duration} of the recording and answer 429 while another
+ * recording is running. Starting a recording is a write operation, restricted to administrators.
+ */
+@Component
+@RequiredArgsConstructor
+@WebEndpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    private static final Duration DEFAULT_DURATION = Duration.ofSeconds(30);
+    private static final int DEFAULT_TOP = 20;
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final FlightRecordings flightRecordings;
+
+    @WriteOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> recording(@Nullable Duration duration) throws IOException {
+        var file = flightRecordings.record(duration == null ? DEFAULT_DURATION : duration);
+        if (file.isEmpty()) {
+            return new WebEndpointResponse<>(TOO_MANY_REQUESTS);
+        }
+
+        return new WebEndpointResponse<>(new TemporaryFileResource(file.get()));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<FlightRecordingSummary> summary(@Selector String view,
+                                                               @Nullable Duration duration,
+                                                               @Nullable Integer top) throws IOException {
+        if (!"summary".equals(view)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+
+        var file = flightRecordings.record(duration == null ? DEFAULT_DURATION : duration);
+        if (file.isEmpty()) {
+            return new WebEndpointResponse<>(TOO_MANY_REQUESTS);
+        }
+
+        try {
+            return new WebEndpointResponse<>(flightRecordings.summarise(file.get(), top == null ? DEFAULT_TOP : top));
+        } finally {
+            Files.deleteIfExists(file.get());
+        }
+    }
+
+    /**
+     * Recording file deleted once it has been streamed back.
+     */
+    private static class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public boolean isFile() {
+            // Keep the response from being served straight from the file, which would skip the deletion
+            return false;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+
+            };
+        }
+
+    }
+
+}
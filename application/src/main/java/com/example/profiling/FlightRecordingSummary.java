@@ -0,0 +1,45 @@
+package com.example.profiling;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Represents the hotspots of a flight recording made by {@link FlightRecordings}.
+ */
+@Getter
+@AllArgsConstructor
+public class FlightRecordingSummary {
+
+    /**
+     * The duration of the recording in milliseconds.
+     */
+    private final long durationMillis;
+
+    /**
+     * The number of CPU samples taken.
+     */
+    private final long executionSamples;
+
+    /**
+     * The frames the most CPU samples were taken in.
+     */
+    private final List<Hotspot> topFrames;
+
+    /**
+     * The application frames the most CPU samples were taken under.
+     */
+    private final List<Hotspot> topApplicationFrames;
+
+    /**
+     * The frames outside the JDK allocating the most memory.
+     */
+    private final List<Hotspot> topAllocationSites;
+
+    /**
+     * The frames waiting the longest to enter a monitor.
+     */
+    private final List<Hotspot> topContendedLocks;
+
+}
@@ -0,0 +1,202 @@
+package com.example.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Service making time-boxed JDK Flight Recorder recordings on demand. Recordings start from the low-overhead
+ * {@code default} settings and add CPU sampling, allocation sampling, lock contention and socket I/O, which covers
+ * the time spent waiting on the database, with thresholds keeping the number of events small under load. The events
+ * holding the environment variables, the system properties and the command lines of the JVM and of the other
+ * processes are disabled, since they carry the credentials passed to the application.
+ * Only one recording runs at a time and its duration is capped.
+ */
+@Slf4j
+@Component
+public class FlightRecordings {
+
+    private static final String APPLICATION_PACKAGE = "com.example.";
+    private static final Duration THRESHOLD = Duration.ofMillis(10);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Duration maxDuration;
+
+    public FlightRecordings(@Value("${profiling.max-duration:PT60S}") Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Records the application for the given duration, capped to the maximum one.
+     *
+     * @param duration the duration of the recording
+     * @return the recording file, which the caller must delete, or an empty optional if a recording is already running
+     * @throws IOException if the recording cannot be written
+     */
+    public Optional<Path> record(Duration duration) throws IOException {
+        if (!lock.tryLock()) {
+            return Optional.empty();
+        }
+
+        try {
+            var file = Files.createTempFile("recording-", ".jfr");
+            try (var recording = newRecording()) {
+                recording.setDestination(file);
+                recording.start();
+
+                log.info("Started flight recording for {}", duration);
+                try {
+                    Thread.sleep(min(duration, maxDuration).toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                recording.stop();
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            return Optional.of(file);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Summarises a recording into its top CPU frames, allocation sites and contended locks.
+     *
+     * @param file the recording file
+     * @param top  the number of hotspots to keep in each list
+     * @return the summary of the recording
+     * @throws IOException if the recording cannot be read
+     */
+    public FlightRecordingSummary summarise(Path file, int top) throws IOException {
+        var frames = new HashMap<String, long[]>();
+        var applicationFrames = new HashMap<String, long[]>();
+        var allocationSites = new HashMap<String, long[]>();
+        var contendedLocks = new HashMap<String, long[]>();
+        long samples = 0;
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+
+        try (var recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                var event = recording.readEvent();
+                start = Math.min(start, event.getStartTime().toEpochMilli());
+                end = Math.max(end, event.getEndTime().toEpochMilli());
+
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        samples++;
+                        add(frames, frame(event, frame -> true), 1);
+                        add(applicationFrames, frame(event, FlightRecordings::isApplicationFrame), 1);
+                    }
+                    case "jdk.ObjectAllocationSample" ->
+                            add(allocationSites, frame(event, frame -> !isJdkFrame(frame)), event.getLong("weight"));
+                    case "jdk.JavaMonitorEnter" ->
+                            add(contendedLocks, frame(event, frame -> true), event.getDuration().toMillis());
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        return new FlightRecordingSummary(
+                start > end ? 0 : end - start,
+                samples,
+                top(frames, top),
+                top(applicationFrames, top),
+                top(allocationSites, top),
+                top(contendedLocks, top)
+        );
+    }
+
+    private static Recording newRecording() throws IOException {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration("default");
+        } catch (ParseException e) {
+            throw new IOException(e);
+        }
+
+        var recording = new Recording(configuration);
+        recording.setName("on-demand");
+        recording.disable("jdk.InitialEnvironmentVariable");
+        recording.disable("jdk.InitialSystemProperty");
+        recording.disable("jdk.JVMInformation");
+        recording.disable("jdk.SystemProcess");
+        recording.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(20));
+        recording.enable("jdk.NativeMethodSample").withPeriod(Duration.ofMillis(20));
+        recording.enable("jdk.ObjectAllocationSample").with("throttle", "150/s");
+        recording.enable("jdk.JavaMonitorEnter").withThreshold(THRESHOLD).withStackTrace();
+        recording.enable("jdk.ThreadPark").withThreshold(THRESHOLD).withStackTrace();
+        recording.enable("jdk.SocketRead").withThreshold(THRESHOLD).withStackTrace();
+        recording.enable("jdk.SocketWrite").withThreshold(THRESHOLD).withStackTrace();
+        return recording;
+    }
+
+    private static String frame(RecordedEvent event, Predicate<RecordedFrame> filter) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return null;
+        }
+
+        return stackTrace.getFrames().stream()
+                .filter(filter)
+                .findFirst()
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .orElse(null);
+    }
+
+    private static boolean isApplicationFrame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE);
+    }
+
+    private static boolean isJdkFrame(RecordedFrame frame) {
+        var type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static void add(Map<String, long[]> hotspots, String frame, long weight) {
+        if (frame == null) {
+            return;
+        }
+
+        var counts = hotspots.computeIfAbsent(frame, key -> new long[2]);
+        counts[0]++;
+        counts[1] += weight;
+    }
+
+    private static List<Hotspot> top(Map<String, long[]> hotspots, int top) {
+        return hotspots.entrySet().stream()
+                .map(entry -> new Hotspot(entry.getKey(), entry.getValue()[0], entry.getValue()[1]))
+                .sorted(Comparator.comparingLong(Hotspot::getWeight).reversed())
+                .limit(top)
+                .toList();
+    }
+
+    private static Duration min(Duration first, Duration second) {
+        return first.compareTo(second) <= 0 ? first : second;
+    }
+
+}
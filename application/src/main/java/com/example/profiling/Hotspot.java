@@ -0,0 +1,28 @@
+package com.example.profiling;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Represents a frame of a {@link FlightRecordingSummary} with the events attributed to it.
+ */
+@Getter
+@AllArgsConstructor
+public class Hotspot {
+
+    /**
+     * The frame, as the class, method and line.
+     */
+    private final String frame;
+
+    /**
+     * The number of events attributed to the frame.
+     */
+    private final long events;
+
+    /**
+     * The weight of the events: samples for CPU, bytes for allocations and milliseconds for lock contention.
+     */
+    private final long weight;
+
+}
@@ -0,0 +1,86 @@
+package com.example.repository;
+
+import com.example.model.entity.LotState;
+import com.example.model.enumeration.LotStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for reading and persisting the auction state of lots on behalf of the bidding engine.
+ * Writes are batched and guarded by the previously persisted price, so a lot changed outside the engine
+ * is reported as not updated instead of being overwritten.
+ */
+@Repository
+public class BidRepository {
+
+    private static final RowMapper<LotState> LOT_STATE_ROW_MAPPER = (rs, rowNum) -> new LotState(
+            rs.getLong("id"),
+            rs.getString("user_login"),
+            rs.getLong("cost_current"),
+            rs.getLong("cost_buy"),
+            rs.getString("bidder_login"),
+            rs.getObject("time_end", LocalDateTime.class),
+            LotStatus.valueOf(rs.getString("status"))
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BidRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Retrieves the auction state of a lot.
+     *
+     * @param id the ID of the lot
+     * @return an {@link Optional} containing the state if the lot exists, or empty otherwise
+     */
+    public Optional<LotState> findLot(long id) {
+        return jdbcTemplate.query("select lot.id, lot.user_login, " +
+                        "coalesce(lci.cost_current, lci.cost_start) as cost_current, lci.cost_buy, lci.bidder_login, " +
+                        "lti.time_end, lsi.status from lot " +
+                        "join lot_cost_information lci on lot.id = lci.lot_id " +
+                        "join lot_time_information lti on lot.id = lti.lot_id " +
+                        "join lot_status_information lsi on lot.id = lsi.lot_id " +
+                        "where lot.id = ?",
+                LOT_STATE_ROW_MAPPER, id).stream().findFirst();
+    }
+
+    /**
+     * Writes the current price and the highest bidder of active lots in a single batch.
+     *
+     * @param lots     the new states of the lots
+     * @param previous the persisted prices the new states were derived from, in the same order
+     * @return the number of updated rows for each lot, 0 if the lot was changed or closed in the meantime
+     */
+    public int[] updateCosts(List<LotState> lots, List<Long> previous) {
+        var arguments = new ArrayList<Object[]>(lots.size());
+        for (int i = 0; i < lots.size(); i++) {
+            var lot = lots.get(i);
+            arguments.add(new Object[]{lot.getCurrent(), lot.getBidder(), lot.getId(), previous.get(i), lot.getId()});
+        }
+
+        return jdbcTemplate.batchUpdate("update lot_cost_information set cost_current = ?, bidder_login = ? " +
+                "where lot_id = ? and coalesce(cost_current, cost_start) = ? and exists (select 1 from lot_status_information " +
+                "where lot_id = ? and status = 'ACTIVE')", arguments);
+    }
+
+    /**
+     * Marks active lots as sold in a single batch.
+     *
+     * @param ids the IDs of the lots
+     * @return the number of updated rows for each lot
+     */
+    public int[] markSold(List<Long> ids) {
+        return jdbcTemplate.batchUpdate("update lot_status_information set status = 'SOLD' " +
+                        "where lot_id = ? and status = 'ACTIVE'",
+                ids.stream().map(id -> new Object[]{id}).toList());
+    }
+
+}
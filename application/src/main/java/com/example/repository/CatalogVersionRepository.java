@@ -0,0 +1,54 @@
+package com.example.repository;
+
+import com.example.model.entity.CatalogVersion;
+import com.example.model.enumeration.CatalogScope;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for reading the catalog versions maintained by the database triggers.
+ * Versions are taken from a sequence, so they are not committed in order and cannot be used to find new rows.
+ * Instead every row records the transaction that wrote it, and rows are read from the oldest transaction
+ * that was still running at the previous read, which never misses a late commit.
+ */
+@Repository
+public class CatalogVersionRepository {
+
+    private static final RowMapper<CatalogVersion> CATALOG_VERSION_ROW_MAPPER = (rs, rowNum) -> new CatalogVersion(
+            CatalogScope.valueOf(rs.getString("scope")),
+            rs.getLong("item_id"),
+            rs.getLong("version")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Retrieves the ID of the oldest transaction that is still running, all older ones being committed or aborted.
+     *
+     * @return the ID of the oldest running transaction
+     */
+    public long getOldestRunningTransaction() {
+        return jdbcTemplate.queryForObject(
+                "select pg_snapshot_xmin(pg_current_snapshot())::text::bigint", Long.class);
+    }
+
+    /**
+     * Retrieves the versions written by the given transaction or any later one.
+     *
+     * @param transaction the ID of the oldest transaction to read the versions of
+     * @return the versions written since the given transaction
+     */
+    public List<CatalogVersion> findWrittenSince(long transaction) {
+        return jdbcTemplate.query("select scope, item_id, version from catalog_version " +
+                        "where txid >= ?::text::xid8",
+                CATALOG_VERSION_ROW_MAPPER, transaction);
+    }
+
+}
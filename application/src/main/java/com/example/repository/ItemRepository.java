@@ -1,11 +1,13 @@
 package com.example.repository;
 
 import com.example.model.entity.Item;
+import com.example.model.entity.SelfPrice;
 import org.springframework.data.jdbc.repository.query.Modifying;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.RepositoryDefinition;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -58,6 +60,15 @@ public interface ItemRepository {
     @Query("select * from item where id = :id")
     Optional<Item> findItem(@Param("id") long id);
 
+    /**
+     * Retrieves the items with the given IDs in a single query.
+     *
+     * @param ids the IDs of the items to retrieve
+     * @return the existing items among the given IDs, in no particular order
+     */
+    @Query("select * from item where id in (:ids)")
+    List<Item> findItems(@Param("ids") Collection<Long> ids);
+
     /**
      * Finds a list of favorite items for a user, filtered by name and category.
      *
@@ -150,6 +161,15 @@ public interface ItemRepository {
     @Query("select cost::integer from calculate_selfprice(:id::integer) as cost")
     Optional<Long> getSelfprice(@Param("id") long id);
 
+    /**
+     * Retrieves the self-prices of the items with the given IDs in a single query.
+     *
+     * @param ids the IDs of the items
+     * @return the self-prices of the existing items among the given IDs, in no particular order
+     */
+    @Query("select id, calculate_selfprice(id)::integer as self_price from item where id in (:ids)")
+    List<SelfPrice> getSelfprices(@Param("ids") Collection<Long> ids);
+
     /**
      * Retrieves a list of distinct categories of items.
      *
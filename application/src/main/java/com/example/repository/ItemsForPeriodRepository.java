@@ -1,6 +1,7 @@
 package com.example.repository;
 
 import com.example.model.entity.ItemsForPeriod;
+import com.example.model.entity.PriceDistribution;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.RepositoryDefinition;
 import org.springframework.data.repository.query.Param;
@@ -16,10 +17,10 @@ import java.util.List;
 public interface ItemsForPeriodRepository {
 
     /**
-     * Retrieves a list of items for a specified period with the maximum cost to buy per day.
+     * Retrieves a list of items for a specified period with the maximum cost to buy per day, ordered by day.
      *
-     * @param start      the start date of the period
-     * @param end        the end date of the period
+     * @param start      the start date of the period, inclusive
+     * @param end        the end date of the period, inclusive
      * @param id         the ID associated with the period
      * @param pageSize   the number of items to retrieve per page
      * @param pageNumber the page number for pagination
@@ -36,8 +37,8 @@ public interface ItemsForPeriodRepository {
     /**
      * Retrieves the total count of items for a specified period.
      *
-     * @param start the start date of the period
-     * @param end   the end date of the period
+     * @param start the start date of the period, inclusive
+     * @param end   the end date of the period, inclusive
      * @param id    the ID associated with the period
      * @return the total count of items for the specified period
      */
@@ -46,4 +47,27 @@ public interface ItemsForPeriodRepository {
                              @Param("end") LocalDate end,
                              @Param("id") long id);
 
+    /**
+     * Computes the distribution of the costs an item was sold for during a specified period.
+     *
+     * @param start the start date of the period, or {@code null} for no lower bound
+     * @param end   the end date of the period, inclusive, or {@code null} for no upper bound
+     * @param id    the ID of the item
+     * @return the number of sold lots and the 10th, 50th and 90th percentiles of their costs
+     */
+    @Query("select count(*) as count," +
+            " percentile_disc(0.1) within group (order by cost_buy) as p10," +
+            " percentile_disc(0.5) within group (order by cost_buy) as p50," +
+            " percentile_disc(0.9) within group (order by cost_buy) as p90" +
+            " from lot" +
+            " join lot_status_information lsi on lot.id = lsi.lot_id and lsi.status = 'SOLD'" +
+            " join lot_time_information lti on lot.id = lti.lot_id" +
+            " join lot_cost_information lci on lot.id = lci.lot_id" +
+            " where lot.item_id = :id" +
+            " and (:start::date is null or time_finish >= :start::date)" +
+            " and (:end::date is null or time_finish < :end::date + 1)")
+    PriceDistribution getPriceDistribution(@Param("start") LocalDate start,
+                                           @Param("end") LocalDate end,
+                                           @Param("id") long id);
+
 }
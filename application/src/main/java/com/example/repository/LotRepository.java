@@ -1,10 +1,12 @@
 package com.example.repository;
 
 import com.example.model.entity.Lot;
+import com.example.model.entity.LotSummary;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.RepositoryDefinition;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -45,4 +47,19 @@ public interface LotRepository {
             "and status = 'ACTIVE'")
     Long countActiveLots(@Param("item") long item);
 
+    /**
+     * Retrieves a summary of the active lots of each of the given items in a single query.
+     *
+     * @param items the IDs of the items
+     * @return a summary for each existing item among the given IDs, in no particular order
+     */
+    @Query("select item.id as item_id, count(lci.lot_id) as active, " +
+            "min(coalesce(cost_current, cost_start)) as min_current, min(cost_buy) as min_buy from item " +
+            "left join lot on item.id = lot.item_id " +
+            "and exists (select 1 from lot_status_information lsi where lsi.lot_id = lot.id and status = 'ACTIVE') " +
+            "left join lot_cost_information lci on lot.id = lci.lot_id " +
+            "where item.id in (:items) " +
+            "group by item.id")
+    List<LotSummary> getLotSummaries(@Param("items") Collection<Long> items);
+
 }
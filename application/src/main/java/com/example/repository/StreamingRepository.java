@@ -0,0 +1,176 @@
+package com.example.repository;
+
+import com.example.model.entity.DailySales;
+import com.example.model.entity.ItemsForPeriod;
+import com.example.model.entity.Lot;
+import com.example.model.entity.LotSale;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Repository for reading large result sets row by row through a server-side cursor.
+ * Rows are handed to a consumer as soon as they are fetched, so memory use does not depend on the result size.
+ * The PostgreSQL driver only uses a cursor when the fetch size is set and auto-commit is disabled,
+ * so callers must invoke these methods inside a transaction.
+ */
+@Repository
+public class StreamingRepository {
+
+    private static final String ACTIVE_LOTS = "select lot.id, lot.user_login, cost_current, cost_buy, time_end from lot " +
+            "join lot_cost_information lci on lot.id = lci.lot_id " +
+            "join lot_status_information lsi on lot.id = lsi.lot_id " +
+            "join lot_time_information lti on lot.id = lti.lot_id ";
+
+    private static final RowMapper<Lot> LOT_ROW_MAPPER = (rs, rowNum) -> new Lot(
+            rs.getLong("id"),
+            rs.getString("user_login"),
+            rs.getLong("cost_current"),
+            rs.getLong("cost_buy"),
+            rs.getObject("time_end", LocalDateTime.class)
+    );
+
+    private static final RowMapper<ItemsForPeriod> ITEMS_FOR_PERIOD_ROW_MAPPER = (rs, rowNum) -> new ItemsForPeriod(
+            rs.getObject("day", LocalDate.class),
+            rs.getLong("max_cost_buy"),
+            rs.getLong("quantity")
+    );
+
+    private static final RowMapper<DailySales> DAILY_SALES_ROW_MAPPER = (rs, rowNum) -> new DailySales(
+            rs.getLong("item_id"),
+            rs.getObject("day", LocalDate.class),
+            rs.getLong("max_cost_buy"),
+            rs.getLong("quantity")
+    );
+
+    private static final RowMapper<LotSale> LOT_SALE_ROW_MAPPER = (rs, rowNum) -> new LotSale(
+            rs.getLong("item_id"),
+            rs.getObject("day", LocalDate.class),
+            rs.getLong("cost_buy")
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates a repository whose statements fetch rows from the server in batches of the given size.
+     *
+     * @param dataSource the data source to read from
+     * @param fetchSize  the number of rows fetched per round trip
+     */
+    public StreamingRepository(DataSource dataSource, @Value("${export.fetch-size:500}") int fetchSize) {
+        var template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * Streams the maximum cost to buy per day for an item, ordered by day.
+     *
+     * @param start    the start date of the period, inclusive
+     * @param end      the end date of the period, inclusive
+     * @param id       the ID of the item
+     * @param after    the last day already received by the client, or {@code null} to start from the beginning
+     * @param consumer the consumer receiving each row
+     */
+    public void streamItemsForPeriod(LocalDate start, LocalDate end, long id, LocalDate after,
+                                     Consumer<ItemsForPeriod> consumer) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("start", start)
+                .addValue("end", end)
+                .addValue("id", id)
+                .addValue("after", after == null ? start.minusDays(1) : after);
+
+        stream("select * from get_max_cost_buy_per_day_for_period(:start, :end, :id::integer) " +
+                "where day > :after order by day",
+                parameters, ITEMS_FOR_PERIOD_ROW_MAPPER, consumer);
+    }
+
+    /**
+     * Streams the active lots of an item, ordered by lot ID.
+     *
+     * @param item     the ID of the item
+     * @param after    the last lot ID already received by the client
+     * @param consumer the consumer receiving each lot
+     */
+    public void streamActiveLotsByItem(long item, long after, Consumer<Lot> consumer) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("item", item)
+                .addValue("after", after);
+
+        stream(ACTIVE_LOTS +
+                "where item_id = :item and status = 'ACTIVE' and lot.id > :after order by lot.id",
+                parameters, LOT_ROW_MAPPER, consumer);
+    }
+
+    /**
+     * Streams the active lots of all items in a category, ordered by lot ID.
+     *
+     * @param category the category of the items
+     * @param after    the last lot ID already received by the client
+     * @param consumer the consumer receiving each lot
+     */
+    public void streamActiveLotsByCategory(String category, long after, Consumer<Lot> consumer) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("category", category)
+                .addValue("after", after);
+
+        stream(ACTIVE_LOTS +
+                "join item_category ic on lot.item_id = ic.item_id " +
+                "where ic.category = :category and status = 'ACTIVE' and lot.id > :after order by lot.id",
+                parameters, LOT_ROW_MAPPER, consumer);
+    }
+
+    /**
+     * Streams the maximum cost to buy and the number of sold lots per item and day, ordered by item and day.
+     *
+     * @param windowDays the number of past days to include besides today, or {@code null} to include the whole history
+     * @param consumer   the consumer receiving each row
+     */
+    public void streamDailySales(Integer windowDays, Consumer<DailySales> consumer) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("window", windowDays);
+
+        stream("select lot.item_id, date_trunc('day', time_finish)::date as day, " +
+                "max(cost_buy) as max_cost_buy, count(1) as quantity from lot " +
+                "join lot_status_information lsi on lot.id = lsi.lot_id and lsi.status = 'SOLD' " +
+                "join lot_time_information lti on lot.id = lti.lot_id " +
+                "join lot_cost_information lci on lot.id = lci.lot_id " +
+                (windowDays == null ? "" : "where time_finish >= current_date - :window::integer ") +
+                "group by 1, 2 order by 1, 2",
+                parameters, DAILY_SALES_ROW_MAPPER, consumer);
+    }
+
+    /**
+     * Streams every sold lot with the day of the sale and its cost, ordered by item and day.
+     *
+     * @param windowDays the number of past days to include besides today, or {@code null} to include the whole history
+     * @param consumer   the consumer receiving each sale
+     */
+    public void streamSales(Integer windowDays, Consumer<LotSale> consumer) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("window", windowDays);
+
+        stream("select lot.item_id, date_trunc('day', time_finish)::date as day, cost_buy from lot " +
+                "join lot_status_information lsi on lot.id = lsi.lot_id and lsi.status = 'SOLD' " +
+                "join lot_time_information lti on lot.id = lti.lot_id " +
+                "join lot_cost_information lci on lot.id = lci.lot_id " +
+                (windowDays == null ? "" : "where time_finish >= current_date - :window::integer ") +
+                "order by 1, 2",
+                parameters, LOT_SALE_ROW_MAPPER, consumer);
+    }
+
+    private <T> void stream(String sql, SqlParameterSource parameters, RowMapper<T> rowMapper, Consumer<T> consumer) {
+        jdbcTemplate.query(sql, parameters, (RowCallbackHandler) rs -> consumer.accept(rowMapper.mapRow(rs, rs.getRow())));
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.example.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for reading the token revocations written by the database triggers when a user is deleted
+ * or changes their password. Like {@link CatalogVersionRepository}, rows are read by the transaction that
+ * wrote them, starting from the oldest transaction that was still running at the previous read.
+ */
+@Repository
+public class TokenRevocationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TokenRevocationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Retrieves the ID of the oldest transaction that is still running, all older ones being committed or aborted.
+     *
+     * @return the ID of the oldest running transaction
+     */
+    public long getOldestRunningTransaction() {
+        return jdbcTemplate.queryForObject(
+                "select pg_snapshot_xmin(pg_current_snapshot())::text::bigint", Long.class);
+    }
+
+    /**
+     * Reads the revocations written by the given transaction or any later one.
+     *
+     * @param transaction the ID of the oldest transaction to read the revocations of
+     * @param handler     the handler receiving the login and the revocation time in epoch milliseconds
+     */
+    public void findWrittenSince(long transaction, RowCallbackHandler handler) {
+        jdbcTemplate.query("select user_login, " +
+                        "floor(extract(epoch from revoked_before) * 1000)::bigint as revoked_before from token_revocation " +
+                        "where txid >= ?::text::xid8",
+                handler, transaction);
+    }
+
+}
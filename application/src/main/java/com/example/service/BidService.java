@@ -0,0 +1,58 @@
+package com.example.service;
+
+import com.example.bidding.BiddingEngine;
+import com.example.exception.BidRejectedException;
+import com.example.exception.EntityNotFoundException;
+import com.example.exception.ServiceOverloadedException;
+import com.example.model.entity.LotState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service class responsible for bidding on lots.
+ * Bids are handed over to the {@link BiddingEngine}, which applies them in order and persists them in batches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BidService {
+
+    private final BiddingEngine biddingEngine;
+
+    /**
+     * Places a bid on a lot.
+     * The returned future fails with {@link EntityNotFoundException} if the lot does not exist and with
+     * {@link BidRejectedException} if the bid is not valid for the current state of the lot.
+     *
+     * @param username the login of the bidder
+     * @param id       the ID of the lot
+     * @param amount   the offered price
+     * @return a future completed with the state of the lot once the bid is persisted
+     * @throws ServiceOverloadedException if too many bids are waiting to be processed
+     */
+    public CompletableFuture<LotState> placeBid(String username, long id, long amount) {
+        log.info("Place bid on lot with id {}", id);
+
+        return biddingEngine.bid(id, username, amount);
+    }
+
+    /**
+     * Buys a lot out at its buy price.
+     * The returned future fails with {@link EntityNotFoundException} if the lot does not exist and with
+     * {@link BidRejectedException} if the lot cannot be bought anymore.
+     *
+     * @param username the login of the buyer
+     * @param id       the ID of the lot
+     * @return a future completed with the state of the sold lot once the buyout is persisted
+     * @throws ServiceOverloadedException if too many bids are waiting to be processed
+     */
+    public CompletableFuture<LotState> buyout(String username, long id) {
+        log.info("Buy out lot with id {}", id);
+
+        return biddingEngine.buyout(id, username);
+    }
+
+}
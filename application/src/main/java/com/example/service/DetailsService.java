@@ -1,8 +1,6 @@
 package com.example.service;
 
 import com.example.exception.EntityNotFoundException;
-import com.example.metrics.DatabaseQueriesTotal;
-import com.example.metrics.DatabaseQueryDuration;
 import com.example.model.entity.User;
 import com.example.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -26,9 +24,6 @@ public class DetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
-    private final DatabaseQueriesTotal dbQueriesTotal;
-    private final DatabaseQueryDuration dbQueryDuration;
-
     /**
      * Loads a user by their email address.
      *
@@ -39,10 +34,8 @@ public class DetailsService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String email)
             throws UsernameNotFoundException {
-        dbQueriesTotal.increment();
-
-        return dbQueryDuration.record(() -> userRepository.findByEmail(email)
-                .orElseThrow(() -> new EntityNotFoundException("There is no user with this email address")));
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new EntityNotFoundException("There is no user with this email address"));
     }
 
     /**
@@ -52,9 +45,7 @@ public class DetailsService implements UserDetailsService {
      * @return true if the user exists, false otherwise
      */
     public boolean isUserExists(String login) {
-        dbQueriesTotal.increment();
-
-        return dbQueryDuration.record(() -> userRepository.isUserExists(login));
+        return userRepository.isUserExists(login);
     }
 
     /**
@@ -64,10 +55,7 @@ public class DetailsService implements UserDetailsService {
      * @return the created user
      */
     public User createUser(User user) {
-        dbQueriesTotal.increment();
-
-        return dbQueryDuration.record(() ->
-                userRepository.createUser(user.getEmail(), user.getBirthDate(), new Date(), user.getPassword()));
+        return userRepository.createUser(user.getEmail(), user.getBirthDate(), new Date(), user.getPassword());
     }
 
 }
@@ -0,0 +1,89 @@
+package com.example.service;
+
+import com.example.exception.EntityNotFoundException;
+import com.example.exception.InvalidRequestException;
+import com.example.model.entity.ItemsForPeriod;
+import com.example.model.entity.Lot;
+import com.example.repository.StreamingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Service class responsible for exporting full result sets that are too large to be paginated.
+ * Rows are read through a database cursor and passed to the consumer one by one,
+ * so every export runs in constant memory. Each method runs in a read-only transaction,
+ * which the cursor requires.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    private final StreamingRepository streamingRepository;
+    private final ItemService itemService;
+
+    /**
+     * Exports the maximum cost to buy per day of an item for a given period, ordered by day.
+     *
+     * @param start    the start date of the period, inclusive
+     * @param end      the end date of the period, inclusive
+     * @param id       the ID of the item
+     * @param after    the last day already received by the client, or {@code null} to export from the start
+     * @param consumer the consumer receiving each row
+     * @throws InvalidRequestException if the start date is after the end date
+     * @throws EntityNotFoundException  if the item does not exist
+     */
+    @Transactional(readOnly = true)
+    public void exportItemsForPeriod(LocalDate start, LocalDate end, long id, LocalDate after,
+                                     Consumer<ItemsForPeriod> consumer) {
+        if (start.isAfter(end)) {
+            throw new InvalidRequestException("The start of the period must not be after its end");
+        }
+        if (!itemService.isItemExists(id)) {
+            throw new EntityNotFoundException("There is no item with such an identifier");
+        }
+
+        log.info("Export items from {} to {} for item {}", start, end, id);
+
+        streamingRepository.streamItemsForPeriod(start, end, id, after, consumer);
+    }
+
+    /**
+     * Exports the active lots of an item, ordered by lot ID.
+     *
+     * @param id       the ID of the item
+     * @param after    the last lot ID already received by the client, or {@code null} to export from the start
+     * @param consumer the consumer receiving each lot
+     * @throws EntityNotFoundException if the item does not exist
+     */
+    @Transactional(readOnly = true)
+    public void exportActiveLots(long id, Long after, Consumer<Lot> consumer) {
+        if (!itemService.isItemExists(id)) {
+            throw new EntityNotFoundException("There is no item with such an identifier");
+        }
+
+        log.info("Export active lots for item {}", id);
+
+        streamingRepository.streamActiveLotsByItem(id, after == null ? 0 : after, consumer);
+    }
+
+    /**
+     * Exports the active lots of all items in a category, ordered by lot ID.
+     *
+     * @param category the category of the items
+     * @param after    the last lot ID already received by the client, or {@code null} to export from the start
+     * @param consumer the consumer receiving each lot
+     */
+    @Transactional(readOnly = true)
+    public void exportActiveLots(String category, Long after, Consumer<Lot> consumer) {
+        log.info("Export active lots for category {}", category);
+
+        streamingRepository.streamActiveLotsByCategory(category, after == null ? 0 : after, consumer);
+    }
+
+}
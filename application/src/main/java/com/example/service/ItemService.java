@@ -1,29 +1,46 @@
 package com.example.service;
 
 import com.example.exception.EntityNotFoundException;
-import com.example.metrics.DatabaseQueriesTotal;
-import com.example.metrics.DatabaseQueryDuration;
 import com.example.model.entity.Dependency;
 import com.example.model.entity.Item;
 import com.example.model.entity.ItemsForPeriod;
 import com.example.model.entity.Lot;
+import com.example.model.entity.LotSummary;
+import com.example.model.entity.PriceDistribution;
+import com.example.model.entity.SelfPrice;
 import com.example.repository.DependencyRepository;
 import com.example.repository.ItemRepository;
 import com.example.repository.ItemsForPeriodRepository;
 import com.example.repository.LotRepository;
+import com.example.store.PriceDistributionStore;
+import com.example.store.PriceSeriesStore;
+import com.example.utils.ConcurrentQueries;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class responsible for managing items, lots, dependencies, and items for a period.
  * Provides methods to retrieve, add, remove, and check items in various contexts (favourites, dependencies, etc.).
+ * Independent queries of a method, such as an existence check, a count and a page, are run concurrently
+ * through {@link ConcurrentQueries}.
+ * Batch methods resolve several IDs with a single query, serving the IDs already present in the matching
+ * cache and fetching only the misses.
  */
 @Service
 @RequiredArgsConstructor
@@ -35,9 +52,10 @@ public class ItemService {
     private final ItemsForPeriodRepository itemsForPeriodRepository;
     private final DependencyRepository dependencyRepository;
     private final DetailsService detailsService;
-
-    private final DatabaseQueriesTotal dbQueriesTotal;
-    private final DatabaseQueryDuration dbQueryDuration;
+    private final PriceSeriesStore priceSeriesStore;
+    private final PriceDistributionStore priceDistributionStore;
+    private final ConcurrentQueries concurrentQueries;
+    private final CacheManager cacheManager;
 
     /**
      * Retrieves a filtered list of items based on the provided name and category.
@@ -49,16 +67,14 @@ public class ItemService {
      */
     @Cacheable("items")
     public Pair<List<Item>, Long> getItems(String name, String category, Pageable pageable) {
-        dbQueriesTotal.increment();
-
-        var total = dbQueryDuration.record(() -> itemRepository.countFilteredItems(name, category));
-        var items = dbQueryDuration.record(() ->
-                itemRepository.findFilteredItems(name, category, pageable.getPageSize(), pageable.getPageNumber())
+        var result = concurrentQueries.run(
+                () -> itemRepository.countFilteredItems(name, category),
+                () -> itemRepository.findFilteredItems(name, category, pageable.getPageSize(), pageable.getPageNumber())
         );
 
         log.info("Get items");
 
-        return Pair.of(items, total);
+        return Pair.of(result.getRight(), result.getLeft());
     }
 
     /**
@@ -70,14 +86,10 @@ public class ItemService {
      */
     @Cacheable("item")
     public Item getItem(long id) {
-        dbQueriesTotal.increment();
-
         log.info("Get item with id {}", id);
 
-        return dbQueryDuration.record(() ->
-                itemRepository.findItem(id)
-                        .orElseThrow(() -> new EntityNotFoundException("There is no item with such an identifier"))
-        );
+        return itemRepository.findItem(id)
+                .orElseThrow(() -> new EntityNotFoundException("There is no item with such an identifier"));
     }
 
     /**
@@ -92,26 +104,20 @@ public class ItemService {
      */
     @Cacheable("fav_items")
     public Pair<List<Item>, Long> getFavouriteItems(String email, String name, String category, Pageable pageable) {
-        if (!detailsService.isUserExists(email)) {
-            throw new EntityNotFoundException("There is no user with this ID");
-        }
-
-        dbQueriesTotal.increment();
-
-        var total = dbQueryDuration.record(() ->
-                itemRepository.countFavouriteItems(email, name, category)
-        );
-        var items = dbQueryDuration.record(() ->
-                itemRepository.findFavouriteItems(email, name, category, pageable.getPageSize(), pageable.getPageNumber())
+        var result = concurrentQueries.run(
+                () -> requireUserExists(email),
+                () -> itemRepository.countFavouriteItems(email, name, category),
+                () -> itemRepository.findFavouriteItems(email, name, category, pageable.getPageSize(), pageable.getPageNumber())
         );
 
         log.info("Get favourite item user {}", email);
 
-        return Pair.of(items, total);
+        return Pair.of(result.getRight(), result.getMiddle());
     }
 
     /**
-     * Checks if an item is marked as a favourite by a user.
+     * Checks if an item is marked as a favourite by a user. The lookups run one after another, since the method
+     * is itself called as one of the concurrent queries of the item endpoint.
      *
      * @param email the user's email address
      * @param id    the ID of the item to check
@@ -120,20 +126,12 @@ public class ItemService {
      */
     @Cacheable("is_fav")
     public boolean isFavourite(String email, long id) {
-        if (!detailsService.isUserExists(email)) {
-            throw new EntityNotFoundException("There is no user with this ID");
-        }
-        if (!this.isItemExists(id)) {
-            throw new EntityNotFoundException("There is no item with such an identifier");
-        }
-
-        dbQueriesTotal.increment();
-
         log.info("Is item with id {} favourite to user {}", id, email);
 
-        return dbQueryDuration.record(() ->
-                itemRepository.isFavourite(email, id)
-        );
+        requireUserExists(email);
+        requireItemExists(id);
+
+        return itemRepository.isFavourite(email, id);
     }
 
     /**
@@ -144,18 +142,12 @@ public class ItemService {
      * @throws EntityNotFoundException if the user or item does not exist
      */
     public void addFavouriteItem(String username, long id) {
-        if (!detailsService.isUserExists(username)) {
-            throw new EntityNotFoundException("There is no user with this ID");
-        }
-        if (!this.isItemExists(id)) {
-            throw new EntityNotFoundException("There is no item with such an identifier");
-        }
-
-        dbQueriesTotal.increment();
-
-        dbQueryDuration.record(() ->
-                itemRepository.addFavouriteItem(username, id)
+        concurrentQueries.run(
+                () -> requireUserExists(username),
+                () -> requireItemExists(id)
         );
+
+        itemRepository.addFavouriteItem(username, id);
         log.info("Add item with id {} to favourite to user {}", id, username);
 
     }
@@ -168,19 +160,13 @@ public class ItemService {
      * @throws EntityNotFoundException if the user or item does not exist
      */
     public void deleteFavouriteItem(String username, long id) {
-        if (!detailsService.isUserExists(username)) {
-            throw new EntityNotFoundException("There is no user with this ID");
-        }
-        if (!this.isItemExists(id)) {
-            throw new EntityNotFoundException("There is no item with such an identifier");
-        }
-
-        dbQueriesTotal.increment();
-
-        dbQueryDuration.record(() ->
-                itemRepository.deleteFavouriteItem(username, id)
+        concurrentQueries.run(
+                () -> requireUserExists(username),
+                () -> requireItemExists(id)
         );
 
+        itemRepository.deleteFavouriteItem(username, id);
+
         log.info("Delete item with id {} from favourite to user {}", id, username);
     }
 
@@ -191,11 +177,7 @@ public class ItemService {
      * @return true if the item exists, false otherwise
      */
     public boolean isItemExists(long id) {
-        dbQueriesTotal.increment();
-
-        return dbQueryDuration.record(() ->
-                itemRepository.isItemExists(id)
-        );
+        return itemRepository.isItemExists(id);
     }
 
     /**
@@ -211,41 +193,117 @@ public class ItemService {
             throw new EntityNotFoundException("There is no item with such an identifier");
         }
 
-        dbQueriesTotal.increment();
-
         log.info("Get selfprice to item with id {}", id);
 
-        return dbQueryDuration.record(() ->
-                itemRepository.getSelfprice(id)
-                        .orElseThrow(() -> new EntityNotFoundException("It is impossible to calculate the self price"))
+        return itemRepository.getSelfprice(id)
+                .orElseThrow(() -> new EntityNotFoundException("It is impossible to calculate the self price"));
+    }
+
+    /**
+     * Retrieves several items by their IDs, reading the cached ones from the {@code item} cache
+     * and fetching the rest with a single query.
+     *
+     * @param ids the IDs of the items to retrieve
+     * @return the items in the order of the given IDs, with {@code null} for the IDs of missing items
+     */
+    public List<Item> getItems(List<Long> ids) {
+        log.info("Get items with ids {}", ids);
+
+        return getCachedBatch("item", Item.class, ids, misses ->
+                itemRepository.findItems(misses).stream()
+                        .collect(Collectors.toMap(item -> item.getId().longValue(), Function.identity()))
         );
     }
 
+    /**
+     * Retrieves the self-prices of several items, reading the cached ones from the {@code self_price} cache
+     * and calculating the rest with a single query.
+     *
+     * @param ids the IDs of the items
+     * @return the self-prices in the order of the given IDs, with {@code null} for the IDs of missing items
+     * or items whose self-price cannot be calculated
+     */
+    public List<Long> getSelfPrices(List<Long> ids) {
+        log.info("Get selfprices to items with ids {}", ids);
+
+        return getCachedBatch("self_price", Long.class, ids, misses -> {
+            var selfPrices = new HashMap<Long, Long>();
+            for (SelfPrice selfPrice : itemRepository.getSelfprices(misses)) {
+                selfPrices.put(selfPrice.getId(), selfPrice.getSelfPrice());
+            }
+            return selfPrices;
+        });
+    }
+
+    /**
+     * Retrieves a summary of the active lots of several items with a single query.
+     *
+     * @param ids the IDs of the items
+     * @return the summaries in the order of the given IDs, with {@code null} for the IDs of missing items
+     */
+    public List<LotSummary> getLotSummaries(List<Long> ids) {
+        log.info("Get lot summaries to items with ids {}", ids);
+
+        var summaries = lotRepository.getLotSummaries(new LinkedHashSet<>(ids)).stream()
+                .collect(Collectors.toMap(LotSummary::getItemId, Function.identity()));
+
+        return ids.stream().map(summaries::get).toList();
+    }
+
     /**
      * Retrieves a list of items for a given period.
+     * Once the {@link PriceSeriesStore} is loaded the days are read from memory, both bounds inclusive and ordered
+     * by day; until then they are aggregated from the lots in the database.
      *
-     * @param start    the start date of the period
-     * @param end      the end date of the period
+     * @param start    the start date of the period, inclusive
+     * @param end      the end date of the period, inclusive
      * @param id       the ID of the item
      * @param pageable pagination details
      * @return a pair containing the list of items for the period and the total count
      * @throws EntityNotFoundException if the item does not exist
      */
-    @Cacheable("items_period")
     public Pair<List<ItemsForPeriod>, Long> getItemsForPeriod(LocalDate start, LocalDate end, long id, Pageable pageable) {
         if (!isItemExists(id)) {
             throw new EntityNotFoundException("There is no item with such an identifier");
         }
 
-        dbQueriesTotal.increment();
-
-        var total = dbQueryDuration.record(() ->
-                itemsForPeriodRepository.countItemsForPeriod(start, end, id));
-        var itemsList = dbQueryDuration.record(() ->
-                itemsForPeriodRepository.getItemsForPeriod(start, end, id, pageable.getPageSize(), pageable.getPageNumber()));
         log.info("Get items from {} to {}", start, end);
 
-        return Pair.of(itemsList, total);
+        if (start != null && end != null && priceSeriesStore.isReady()) {
+            return priceSeriesStore.find(id, start, end, pageable);
+        }
+
+        var result = concurrentQueries.run(
+                () -> itemsForPeriodRepository.countItemsForPeriod(start, end, id),
+                () -> itemsForPeriodRepository.getItemsForPeriod(start, end, id, pageable.getPageSize(), pageable.getPageNumber())
+        );
+
+        return Pair.of(result.getRight(), result.getLeft());
+    }
+
+    /**
+     * Retrieves the distribution of the costs an item was sold for during a given period.
+     * Once the {@link PriceDistributionStore} is loaded the percentiles are estimated by merging the daily sketches
+     * of the period, both bounds inclusive; until then they are computed exactly from the lots in the database.
+     *
+     * @param start the start date of the period, inclusive
+     * @param end   the end date of the period, inclusive
+     * @param id    the ID of the item
+     * @return the number of sold lots and the 10th, 50th and 90th percentiles of their costs
+     * @throws EntityNotFoundException if the item does not exist
+     */
+    public PriceDistribution getPriceDistribution(LocalDate start, LocalDate end, long id) {
+        if (!isItemExists(id)) {
+            throw new EntityNotFoundException("There is no item with such an identifier");
+        }
+
+        log.info("Get price distribution from {} to {}", start, end);
+
+        if (start != null && end != null && priceDistributionStore.isReady()) {
+            return priceDistributionStore.find(id, start, end);
+        }
+
+        return itemsForPeriodRepository.getPriceDistribution(start, end, id);
     }
 
     /**
@@ -255,10 +313,9 @@ public class ItemService {
      */
     @Cacheable("categories")
     public List<String> getCategories() {
-        dbQueriesTotal.increment();
         log.info("Get item categories");
 
-        return dbQueryDuration.record(itemRepository::getCategories);
+        return itemRepository.getCategories();
     }
 
     /**
@@ -269,10 +326,9 @@ public class ItemService {
      */
     @Cacheable("fav_categories")
     public List<String> getFavouritesCategories(String username) {
-        dbQueriesTotal.increment();
         log.info("Get favourite item categories to user {}", username);
 
-        return dbQueryDuration.record(() -> itemRepository.getFavouritesCategories(username));
+        return itemRepository.getFavouritesCategories(username);
     }
 
     /**
@@ -285,19 +341,14 @@ public class ItemService {
      */
     @Cacheable("active_lots")
     public Pair<List<Lot>, Long> getActiveLots(long id, Pageable pageable) {
-        if (!isItemExists(id)) {
-            throw new EntityNotFoundException("There is no item with such an identifier");
-        }
-
-        dbQueriesTotal.increment();
-
-        var total = dbQueryDuration.record(() ->
-                lotRepository.countActiveLots(id));
-        var lots = dbQueryDuration.record(() ->
-                lotRepository.findActiveLots(id, pageable.getPageSize(), pageable.getPageNumber()));
+        var result = concurrentQueries.run(
+                () -> requireItemExists(id),
+                () -> lotRepository.countActiveLots(id),
+                () -> lotRepository.findActiveLots(id, pageable.getPageSize(), pageable.getPageNumber())
+        );
         log.info("Get active lots from user {}", id);
 
-        return Pair.of(lots, total);
+        return Pair.of(result.getRight(), result.getMiddle());
     }
 
     /**
@@ -310,19 +361,62 @@ public class ItemService {
      */
     @Cacheable("dependencies")
     public Pair<List<Dependency>, Long> getDependencies(long id, Pageable pageable) {
-        if (!isItemExists(id)) {
-            throw new EntityNotFoundException("There is no item with such an identifier");
+        var result = concurrentQueries.run(
+                () -> requireItemExists(id),
+                () -> dependencyRepository.getDependenciesCount(id),
+                () -> dependencyRepository.getDependencies(id, pageable.getPageSize(), pageable.getPageNumber())
+        );
+        log.info("Get dependencies to item {}", id);
+
+        return Pair.of(result.getRight(), result.getMiddle());
+    }
+
+    private <T> List<T> getCachedBatch(String cacheName, Class<T> type, List<Long> ids,
+                                       Function<Collection<Long>, Map<Long, T>> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+
+        var found = new HashMap<Long, T>();
+        var misses = new LinkedHashSet<Long>();
+        for (Long id : ids) {
+            T value = cache == null ? null : cache.get(id, type);
+            if (value != null) {
+                found.put(id, value);
+            } else {
+                misses.add(id);
+            }
         }
 
-        dbQueriesTotal.increment();
+        if (!misses.isEmpty()) {
+            var loaded = loader.apply(misses);
+            loaded.forEach((id, value) -> {
+                if (value != null) {
+                    found.put(id, value);
+                    if (cache != null) {
+                        cache.put(id, value);
+                    }
+                }
+            });
+        }
 
-        var total = dbQueryDuration.record(() ->
-                dependencyRepository.getDependenciesCount(id));
-        var dependencyList = dbQueryDuration.record(() ->
-                dependencyRepository.getDependencies(id, pageable.getPageSize(), pageable.getPageNumber()));
-        log.info("Get dependencies to item {}", id);
+        var result = new ArrayList<T>(ids.size());
+        for (Long id : ids) {
+            result.add(found.get(id));
+        }
+        return result;
+    }
+
+    private boolean requireUserExists(String email) {
+        if (!detailsService.isUserExists(email)) {
+            throw new EntityNotFoundException("There is no user with this ID");
+        }
+        return true;
+    }
 
-        return Pair.of(dependencyList, total);
+    private boolean requireItemExists(long id) {
+        if (!isItemExists(id)) {
+            throw new EntityNotFoundException("There is no item with such an identifier");
+        }
+        return true;
     }
 
 }
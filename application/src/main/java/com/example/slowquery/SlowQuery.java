@@ -0,0 +1,48 @@
+package com.example.slowquery;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Represents a query recorded by the {@link SlowQueryLog} because it took longer than the threshold.
+ */
+@Getter
+@RequiredArgsConstructor
+public class SlowQuery {
+
+    /**
+     * The moment the query completed.
+     */
+    private final Instant timestamp;
+
+    /**
+     * The time the query took in milliseconds.
+     */
+    private final long durationMillis;
+
+    /**
+     * The SQL of the query, with placeholders for its parameters.
+     */
+    private final String sql;
+
+    /**
+     * The bound parameters, with text and binary values redacted down to their length.
+     */
+    private final List<String> parameters;
+
+    /**
+     * The application method that ran the query, or {@code null} if it could not be found.
+     */
+    private final String callSite;
+
+    /**
+     * The plan of the query measured by EXPLAIN ANALYZE, or {@code null} if the query was not sampled.
+     */
+    @Setter
+    private volatile String plan;
+
+}
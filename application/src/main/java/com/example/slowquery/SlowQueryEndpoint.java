@@ -0,0 +1,32 @@
+package com.example.slowquery;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint listing the queries recorded by the {@link SlowQueryLog}, the most recent first. The queries
+ * carry their parameters and plans, so the endpoint is restricted to administrators like the rest of the actuator.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    @ReadOperation
+    public List<SlowQuery> slowQueries() {
+        return slowQueryLog.getQueries();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+
+}
@@ -0,0 +1,232 @@
+package com.example.slowquery;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Log of the queries that took longer than a threshold, kept in a bounded ring buffer and exposed through the
+ * {@link SlowQueryEndpoint}. The data source is wrapped with datasource-proxy, so every statement is covered whatever
+ * runs it. Each entry records the SQL, the redacted parameters, the duration and the application method that ran it.
+ * <p>
+ * At most one slow select per interval is sampled: it is run again with EXPLAIN (ANALYZE, BUFFERS) on a separate
+ * thread, in a read-only transaction that is rolled back and bounded by a statement timeout, and the plan is attached
+ * to the entry.
+ */
+@Slf4j
+@Component
+public class SlowQueryLog implements BeanPostProcessor, QueryExecutionListener {
+
+    private static final String PACKAGE = "com.example.";
+    private static final List<String> SKIPPED_PACKAGES = List.of("com.example.slowquery.", "com.example.metrics.");
+
+    private final Deque<SlowQuery> queries = new ArrayDeque<>();
+    private final AtomicLong nextExplain = new AtomicLong(System.nanoTime());
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), new CustomizableThreadFactory("slow-query-explain-"),
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    private final long thresholdMillis;
+    private final int capacity;
+    private final long explainIntervalNanos;
+    private final long explainTimeoutMillis;
+
+    private volatile DataSource explainDataSource;
+
+    public SlowQueryLog(@Value("${slow-queries.threshold:PT0.5S}") Duration threshold,
+                        @Value("${slow-queries.capacity:100}") int capacity,
+                        @Value("${slow-queries.explain-interval:PT1M}") Duration explainInterval,
+                        @Value("${slow-queries.explain-timeout:PT10S}") Duration explainTimeout) {
+        this.thresholdMillis = threshold.toMillis();
+        this.capacity = capacity;
+        this.explainIntervalNanos = explainInterval.toNanos();
+        this.explainTimeoutMillis = explainTimeout.toMillis();
+    }
+
+    @PreDestroy
+    public void close() {
+        explainExecutor.shutdownNow();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+
+        explainDataSource = dataSource;
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name(beanName)
+                .listener(this)
+                .build();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis || queryInfoList.isEmpty()) {
+            return;
+        }
+
+        var queryInfo = queryInfoList.get(0);
+        var sql = queryInfo.getQuery();
+        var operations = queryInfo.getParametersList().isEmpty()
+                ? List.<ParameterSetOperation>of()
+                : sorted(queryInfo.getParametersList().get(0));
+
+        var query = new SlowQuery(
+                Instant.now(),
+                execInfo.getElapsedTime(),
+                sql,
+                operations.stream().map(SlowQueryLog::redact).toList(),
+                callSite()
+        );
+        add(query);
+
+        log.warn("Slow query took {} ms at {}: {}", query.getDurationMillis(), query.getCallSite(), sql);
+
+        if (!execInfo.isBatch() && queryInfoList.size() == 1 && isSelect(sql) && tryAcquireExplain()) {
+            explainExecutor.execute(() -> query.setPlan(explain(sql, operations)));
+        }
+    }
+
+    /**
+     * Returns the recorded queries, the most recent first.
+     *
+     * @return the slow queries still in the buffer
+     */
+    public synchronized List<SlowQuery> getQueries() {
+        var result = new ArrayList<SlowQuery>(queries.size());
+        queries.descendingIterator().forEachRemaining(result::add);
+        return result;
+    }
+
+    /**
+     * Removes every recorded query.
+     */
+    public synchronized void clear() {
+        queries.clear();
+    }
+
+    private synchronized void add(SlowQuery query) {
+        if (queries.size() == capacity) {
+            queries.removeFirst();
+        }
+        queries.addLast(query);
+    }
+
+    private boolean tryAcquireExplain() {
+        long now = System.nanoTime();
+        long next = nextExplain.get();
+
+        return now - next >= 0 && nextExplain.compareAndSet(next, now + explainIntervalNanos);
+    }
+
+    private String explain(String sql, List<ParameterSetOperation> operations) {
+        try (var connection = explainDataSource.getConnection()) {
+            connection.setReadOnly(true);
+            connection.setAutoCommit(false);
+
+            try {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("set local statement_timeout = " + explainTimeoutMillis);
+                }
+                try (var statement = connection.prepareStatement("explain (analyze, buffers) " + sql)) {
+                    for (var operation : operations) {
+                        var args = operation.getArgs();
+                        if ("setNull".equals(operation.getMethod().getName())) {
+                            statement.setNull((Integer) args[0], (Integer) args[1]);
+                        } else {
+                            statement.setObject((Integer) args[0], args[1]);
+                        }
+                    }
+
+                    var plan = new StringBuilder();
+                    try (var resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            plan.append(resultSet.getString(1)).append('\n');
+                        }
+                    }
+                    return plan.toString();
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Failed to explain slow query: {}", sql, e);
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    private static List<ParameterSetOperation> sorted(List<ParameterSetOperation> operations) {
+        return operations.stream()
+                .filter(operation -> operation.getArgs().length > 1 && operation.getArgs()[0] instanceof Integer)
+                .sorted(Comparator.comparing(operation -> (Integer) operation.getArgs()[0]))
+                .toList();
+    }
+
+    private static String redact(ParameterSetOperation operation) {
+        if ("setNull".equals(operation.getMethod().getName())) {
+            return "null";
+        }
+
+        var value = operation.getArgs()[1];
+        if (value == null || value instanceof Number || value instanceof Boolean
+                || value instanceof Date || value instanceof TemporalAccessor) {
+            return String.valueOf(value);
+        }
+        if (value instanceof CharSequence text) {
+            return "<text:" + text.length() + ">";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<bytes:" + bytes.length + ">";
+        }
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    private static boolean isSelect(String sql) {
+        var statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return statement.startsWith("select") || statement.startsWith("with");
+    }
+
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(PACKAGE))
+                .filter(frame -> SKIPPED_PACKAGES.stream().noneMatch(frame.getClassName()::startsWith))
+                .filter(frame -> !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse(null));
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.example.store;
+
+import com.example.event.CatalogChangedEvent;
+import com.example.model.entity.CatalogVersion;
+import com.example.repository.CatalogVersionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of the catalog versions, used to build entity tags without querying the catalog itself.
+ * The whole table is loaded once the application is ready and the rows written since the previous poll are
+ * read periodically. Before a new version becomes visible a {@link CatalogChangedEvent} is published, so the
+ * caches are evicted first and a tag is never paired with data older than the version it stands for.
+ */
+@Slf4j
+@Component
+public class CatalogVersionStore {
+
+    private final Map<Long, Long> items = new ConcurrentHashMap<>();
+    private final Map<Long, Long> favourites = new ConcurrentHashMap<>();
+
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReentrantLock pollLock = new ReentrantLock();
+
+    private volatile long categories;
+    private volatile long dependencies;
+    private volatile long latestItem;
+
+    private long transaction;
+    private volatile boolean ready;
+
+    public CatalogVersionStore(CatalogVersionRepository catalogVersionRepository,
+                               ApplicationEventPublisher eventPublisher) {
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Loads all catalog versions once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        poll();
+    }
+
+    /**
+     * Reads the versions written since the previous poll, or retries the initial load if it has not succeeded yet.
+     */
+    @Scheduled(fixedDelayString = "${catalog-versions.poll-interval:PT1S}",
+            initialDelayString = "${catalog-versions.poll-interval:PT1S}")
+    public void poll() {
+        pollLock.lock();
+        try {
+            var oldest = catalogVersionRepository.getOldestRunningTransaction();
+            var versions = catalogVersionRepository.findWrittenSince(ready ? transaction : 0);
+
+            apply(versions);
+            transaction = oldest;
+
+            if (!ready) {
+                ready = true;
+                log.info("Loaded catalog versions of {} items", items.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll the catalog versions", e);
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    /**
+     * Indicates whether the initial load has completed and tags can be built.
+     *
+     * @return true if the store is loaded, false otherwise
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Builds the tag of an item as seen by a user, which also covers whether the user marked it as a favourite.
+     *
+     * @param id       the ID of the item
+     * @param username the user's email address, or {@code null} for anonymous users
+     * @return the tag of the item, or {@code null} if the store is not loaded or the item is unknown
+     */
+    public String getItemTag(long id, String username) {
+        var version = ready ? items.get(id) : null;
+        if (version == null) {
+            return null;
+        }
+
+        if (username == null) {
+            return "item-" + id + "-" + version;
+        }
+
+        return "item-" + id + "-" + version + "-" + favourites.getOrDefault(id, 0L)
+                + "-" + Integer.toHexString(username.hashCode());
+    }
+
+    /**
+     * Builds the tag of the set of item categories.
+     *
+     * @return the tag of the categories, or {@code null} if the store is not loaded
+     */
+    public String getCategoriesTag() {
+        return ready ? "categories-" + categories : null;
+    }
+
+    /**
+     * Builds the tag of the dependencies of an item, which also covers the items appearing in them.
+     *
+     * @param id the ID of the item
+     * @return the tag of the dependencies, or {@code null} if the store is not loaded or the item is unknown
+     */
+    public String getDependenciesTag(long id) {
+        if (!ready || !items.containsKey(id)) {
+            return null;
+        }
+
+        return "dependencies-" + id + "-" + Math.max(dependencies, latestItem);
+    }
+
+    private void apply(List<CatalogVersion> versions) {
+        var changedItems = new HashSet<Long>();
+        var changedFavourites = new HashSet<Long>();
+        var categoriesChanged = false;
+        var dependenciesChanged = false;
+
+        for (CatalogVersion version : versions) {
+            switch (version.getScope()) {
+                case ITEM -> {
+                    if (!Objects.equals(items.get(version.getItemId()), version.getVersion())) {
+                        changedItems.add(version.getItemId());
+                    }
+                }
+                case FAVOURITE -> {
+                    if (!Objects.equals(favourites.get(version.getItemId()), version.getVersion())) {
+                        changedFavourites.add(version.getItemId());
+                    }
+                }
+                case CATEGORIES -> categoriesChanged |= categories != version.getVersion();
+                case DEPENDENCIES -> dependenciesChanged |= dependencies != version.getVersion();
+            }
+        }
+
+        if (ready && (!changedItems.isEmpty() || !changedFavourites.isEmpty()
+                || categoriesChanged || dependenciesChanged)) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(
+                    changedItems, changedFavourites, categoriesChanged, dependenciesChanged));
+        }
+
+        for (CatalogVersion version : versions) {
+            switch (version.getScope()) {
+                case ITEM -> {
+                    items.put(version.getItemId(), version.getVersion());
+                    latestItem = Math.max(latestItem, version.getVersion());
+                }
+                case FAVOURITE -> favourites.put(version.getItemId(), version.getVersion());
+                case CATEGORIES -> categories = version.getVersion();
+                case DEPENDENCIES -> dependencies = version.getVersion();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.example.store;
+
+import com.example.model.entity.ItemsForPeriod;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Daily price history of a single item stored column-wise in parallel primitive arrays,
+ * sorted by epoch day. Days are unique, so writing a day that is already present replaces its values.
+ * All methods are thread-safe; readers share a read-write lock that is only held for in-memory work and,
+ * unlike a monitor, does not pin the carrier when virtual threads contend on it.
+ */
+public class ItemPriceSeries {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] days = new int[INITIAL_CAPACITY];
+    private long[] maxCostBuy = new long[INITIAL_CAPACITY];
+    private long[] quantity = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Writes the sales of a day, appending it when it is newer than every stored day.
+     *
+     * @param day        the epoch day of the sales
+     * @param maxCostBuy the maximum cost the item was sold for on that day
+     * @param quantity   the number of lots sold on that day
+     */
+    public void put(int day, long maxCostBuy, long quantity) {
+        lock.writeLock().lock();
+        try {
+            int index = size > 0 && days[size - 1] < day ? -(size + 1) : Arrays.binarySearch(days, 0, size, day);
+
+            if (index < 0) {
+                index = -(index + 1);
+                ensureCapacity(size + 1);
+
+                System.arraycopy(days, index, days, index + 1, size - index);
+                System.arraycopy(this.maxCostBuy, index, this.maxCostBuy, index + 1, size - index);
+                System.arraycopy(this.quantity, index, this.quantity, index + 1, size - index);
+                size++;
+            }
+
+            days[index] = day;
+            this.maxCostBuy[index] = maxCostBuy;
+            this.quantity[index] = quantity;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the days with sales between the given days, both inclusive.
+     *
+     * @param from the first epoch day of the range
+     * @param to   the last epoch day of the range
+     * @return the number of days with sales in the range
+     */
+    public int count(int from, int to) {
+        lock.readLock().lock();
+        try {
+            return Math.max(0, upperBound(to) - lowerBound(from));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a page of the days with sales between the given days, both inclusive, ordered by day.
+     *
+     * @param from   the first epoch day of the range
+     * @param to     the last epoch day of the range
+     * @param offset the number of days in the range to skip
+     * @param limit  the maximum number of days to return
+     * @return the requested page of the range
+     */
+    public List<ItemsForPeriod> slice(int from, int to, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            long start = lowerBound(from) + offset;
+            int end = (int) Math.min(upperBound(to), start + limit);
+
+            if (start >= end) {
+                return List.of();
+            }
+
+            var result = new ArrayList<ItemsForPeriod>(end - (int) start);
+            for (int i = (int) start; i < end; i++) {
+                result.add(new ItemsForPeriod(LocalDate.ofEpochDay(days[i]), maxCostBuy[i], quantity[i]));
+            }
+
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of stored days.
+     *
+     * @return the number of days with sales
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes taken by the column arrays, including unused capacity.
+     *
+     * @return the size of the columns in bytes
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) days.length * Integer.BYTES + (long) maxCostBuy.length * Long.BYTES
+                    + (long) quantity.length * Long.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int lowerBound(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (days[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (days[middle] <= day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > days.length) {
+            int newCapacity = Math.max(capacity, days.length + (days.length >> 1));
+            days = Arrays.copyOf(days, newCapacity);
+            maxCostBuy = Arrays.copyOf(maxCostBuy, newCapacity);
+            quantity = Arrays.copyOf(quantity, newCapacity);
+        }
+    }
+
+}
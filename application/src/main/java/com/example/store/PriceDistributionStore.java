@@ -0,0 +1,206 @@
+package com.example.store;
+
+import com.example.model.entity.LotSale;
+import com.example.model.entity.PriceDistribution;
+import com.example.repository.StreamingRepository;
+import com.tdunning.math.stats.MergingDigest;
+import com.tdunning.math.stats.TDigest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory store of the sold costs of every item as one t-digest quantile sketch per item and day.
+ * Sketches are kept in their compact serialised form and merged on demand, so the distribution of any range of days
+ * is computed without rescanning lots. Like {@link PriceSeriesStore}, the whole history is loaded once the
+ * application is ready and the sketches of the most recent days are periodically rebuilt and replaced.
+ */
+@Slf4j
+@Component
+public class PriceDistributionStore {
+
+    private final Map<Long, NavigableMap<Integer, byte[]>> sketches = new ConcurrentHashMap<>();
+
+    private final StreamingRepository streamingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int refreshWindowDays;
+    private final double compression;
+
+    private volatile boolean ready;
+
+    public PriceDistributionStore(StreamingRepository streamingRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${price-store.refresh-window-days:1}") int refreshWindowDays,
+                                  @Value("${price-store.sketch-compression:100}") double compression) {
+        this.streamingRepository = streamingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.refreshWindowDays = refreshWindowDays;
+        this.compression = compression;
+
+        Gauge.builder("price_distribution_store_bytes", this, PriceDistributionStore::memoryBytes)
+                .description("Memory taken by the serialised price sketches")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the sketches of the whole sales history once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loadHistory();
+    }
+
+    /**
+     * Rebuilds the sketches of the most recent days, or retries the initial load if it has not succeeded yet.
+     */
+    @Scheduled(fixedDelayString = "${price-store.refresh-interval:PT30S}",
+            initialDelayString = "${price-store.refresh-interval:PT30S}")
+    public void refresh() {
+        if (!ready) {
+            loadHistory();
+            return;
+        }
+
+        try {
+            build(refreshWindowDays);
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh the price distribution store", e);
+        }
+    }
+
+    /**
+     * Indicates whether the initial load has completed and the store can answer queries.
+     *
+     * @return true if the store is loaded, false otherwise
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Computes the distribution of the costs an item was sold for between two days, both inclusive,
+     * by merging the sketches of every day in the range.
+     *
+     * @param id    the ID of the item
+     * @param start the first day of the period
+     * @param end   the last day of the period
+     * @return the distribution of the sold costs, with {@code null} percentiles if nothing was sold
+     */
+    public PriceDistribution find(long id, LocalDate start, LocalDate end) {
+        var itemSketches = sketches.get(id);
+        if (itemSketches == null) {
+            return new PriceDistribution(0L, null, null, null);
+        }
+
+        var days = itemSketches.subMap((int) start.toEpochDay(), true, (int) end.toEpochDay(), true).values();
+        var digests = new ArrayList<TDigest>(days.size());
+        for (byte[] day : days) {
+            digests.add(MergingDigest.fromBytes(ByteBuffer.wrap(day)));
+        }
+
+        var merged = new MergingDigest(compression);
+        merged.add(digests);
+
+        if (merged.size() == 0) {
+            return new PriceDistribution(0L, null, null, null);
+        }
+
+        return new PriceDistribution(
+                merged.size(),
+                Math.round(merged.quantile(0.1)),
+                Math.round(merged.quantile(0.5)),
+                Math.round(merged.quantile(0.9))
+        );
+    }
+
+    /**
+     * Returns the number of bytes taken by the serialised sketches.
+     *
+     * @return the size of the sketches in bytes
+     */
+    public long memoryBytes() {
+        return sketches.values().stream()
+                .flatMap(itemSketches -> itemSketches.values().stream())
+                .mapToLong(sketch -> sketch.length)
+                .sum();
+    }
+
+    private void loadHistory() {
+        try {
+            build(null);
+            ready = true;
+
+            log.info("Loaded price sketches for {} items ({} bytes)", sketches.size(), memoryBytes());
+        } catch (RuntimeException e) {
+            log.warn("Failed to load the price distribution store", e);
+        }
+    }
+
+    private void build(Integer windowDays) {
+        var builder = new SketchBuilder();
+
+        transactionTemplate.executeWithoutResult(status ->
+                streamingRepository.streamSales(windowDays, builder::add));
+        builder.publish();
+    }
+
+    /**
+     * Accumulates sales ordered by item and day into one sketch per item and day,
+     * publishing each sketch as soon as the next item or day starts.
+     */
+    private class SketchBuilder {
+
+        private long itemId;
+        private int day;
+        private MergingDigest digest;
+
+        void add(LotSale sale) {
+            int saleDay = (int) sale.getDay().toEpochDay();
+
+            if (digest == null || itemId != sale.getItemId() || day != saleDay) {
+                publish();
+
+                itemId = sale.getItemId();
+                day = saleDay;
+                digest = new MergingDigest(compression);
+            }
+
+            digest.add(sale.getCostBuy());
+        }
+
+        void publish() {
+            if (digest == null) {
+                return;
+            }
+
+            digest.compress();
+            var buffer = ByteBuffer.allocate(digest.smallByteSize());
+            digest.asSmallBytes(buffer);
+
+            sketches.computeIfAbsent(itemId, id -> new ConcurrentSkipListMap<>())
+                    .put(day, buffer.array());
+            digest = null;
+        }
+
+    }
+
+}
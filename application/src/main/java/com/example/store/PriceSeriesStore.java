@@ -0,0 +1,147 @@
+package com.example.store;
+
+import com.example.model.entity.DailySales;
+import com.example.model.entity.ItemsForPeriod;
+import com.example.repository.StreamingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory store of the daily price history of every item, kept as one {@link ItemPriceSeries} per item.
+ * The whole history of sold lots is bulk-loaded once the application is ready, after which the most recent days
+ * are periodically re-aggregated and written over the stored values, so new sales appear without rescanning
+ * the whole history. Range queries are answered with a binary search over the sorted days.
+ */
+@Slf4j
+@Component
+public class PriceSeriesStore {
+
+    private final Map<Long, ItemPriceSeries> series = new ConcurrentHashMap<>();
+
+    private final StreamingRepository streamingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int refreshWindowDays;
+
+    private volatile boolean ready;
+
+    public PriceSeriesStore(StreamingRepository streamingRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${price-store.refresh-window-days:1}") int refreshWindowDays) {
+        this.streamingRepository = streamingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.refreshWindowDays = refreshWindowDays;
+
+        Gauge.builder("price_series_store_items", series, Map::size)
+                .description("Number of items in the price series store")
+                .register(meterRegistry);
+        Gauge.builder("price_series_store_bytes", this, PriceSeriesStore::memoryBytes)
+                .description("Memory taken by the price series store columns")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the whole sales history once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loadHistory();
+    }
+
+    /**
+     * Re-aggregates the sales of the most recent days, or retries the initial load if it has not succeeded yet.
+     */
+    @Scheduled(fixedDelayString = "${price-store.refresh-interval:PT30S}",
+            initialDelayString = "${price-store.refresh-interval:PT30S}")
+    public void refresh() {
+        if (!ready) {
+            loadHistory();
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    streamingRepository.streamDailySales(refreshWindowDays, this::put));
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh the price series store", e);
+        }
+    }
+
+    /**
+     * Indicates whether the initial load has completed and the store can answer queries.
+     *
+     * @return true if the store is loaded, false otherwise
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Retrieves a page of the daily prices of an item between two days, both inclusive, ordered by day.
+     *
+     * @param id       the ID of the item
+     * @param start    the first day of the period
+     * @param end      the last day of the period
+     * @param pageable pagination details
+     * @return a pair containing the requested page and the total number of days with sales in the period
+     */
+    public Pair<List<ItemsForPeriod>, Long> find(long id, LocalDate start, LocalDate end, Pageable pageable) {
+        var itemSeries = series.get(id);
+        if (itemSeries == null) {
+            return Pair.of(List.of(), 0L);
+        }
+
+        int from = (int) start.toEpochDay();
+        int to = (int) end.toEpochDay();
+
+        return Pair.of(itemSeries.slice(from, to, pageable.getOffset(), pageable.getPageSize()),
+                (long) itemSeries.count(from, to));
+    }
+
+    /**
+     * Returns the number of bytes taken by the columns of all stored items.
+     *
+     * @return the size of the store in bytes
+     */
+    public long memoryBytes() {
+        return series.values().stream()
+                .mapToLong(ItemPriceSeries::memoryBytes)
+                .sum();
+    }
+
+    private void loadHistory() {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    streamingRepository.streamDailySales(null, this::put));
+            ready = true;
+
+            log.info("Loaded price series for {} items ({} bytes)", series.size(), memoryBytes());
+        } catch (RuntimeException e) {
+            log.warn("Failed to load the price series store", e);
+        }
+    }
+
+    private void put(DailySales sales) {
+        series.computeIfAbsent(sales.getItemId(), id -> new ItemPriceSeries())
+                .put((int) sales.getDay().toEpochDay(), sales.getMaxCostBuy(), sales.getQuantity());
+    }
+
+}
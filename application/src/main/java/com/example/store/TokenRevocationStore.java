@@ -0,0 +1,98 @@
+package com.example.store;
+
+import com.example.repository.TokenRevocationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of the token revocations, mapping the login of every deleted user or user who changed their
+ * password to the moment their earlier tokens stopped being valid. It lets the authentication filter trust
+ * the claims of a token without looking the user up. The table is loaded once the application is ready and
+ * the rows written since the previous poll are read periodically.
+ */
+@Slf4j
+@Component
+public class TokenRevocationStore {
+
+    private final Map<String, Long> revocations = new ConcurrentHashMap<>();
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    private final ReentrantLock pollLock = new ReentrantLock();
+
+    private long transaction;
+    private volatile boolean ready;
+
+    public TokenRevocationStore(TokenRevocationRepository tokenRevocationRepository) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+    }
+
+    /**
+     * Loads all revocations once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        poll();
+    }
+
+    /**
+     * Reads the revocations written since the previous poll, or retries the initial load if it has not
+     * succeeded yet.
+     */
+    @Scheduled(fixedDelayString = "${token-revocations.poll-interval:PT1S}",
+            initialDelayString = "${token-revocations.poll-interval:PT1S}")
+    public void poll() {
+        pollLock.lock();
+        try {
+            var oldest = tokenRevocationRepository.getOldestRunningTransaction();
+            tokenRevocationRepository.findWrittenSince(ready ? transaction : 0, rs ->
+                    revocations.put(rs.getString("user_login"), rs.getLong("revoked_before")));
+            transaction = oldest;
+
+            if (!ready) {
+                ready = true;
+                log.info("Loaded {} token revocations", revocations.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll the token revocations", e);
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    /**
+     * Indicates whether the initial load has completed and revocations can be checked.
+     *
+     * @return true if the store is loaded, false otherwise
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Checks whether a token was revoked, that is issued before its user was deleted or changed their password.
+     * Tokens without an issue time are treated as issued before any revocation. A token issued without the
+     * millisecond claim only has its issue time to the second, so one issued in the second of the revocation is
+     * rejected and its user has to log in again.
+     *
+     * @param username       the subject of the token
+     * @param issuedAtMillis the issue time of the token in epoch milliseconds, or {@code null} if absent
+     * @return true if the token is revoked, false otherwise
+     */
+    public boolean isRevoked(String username, Long issuedAtMillis) {
+        var revokedBefore = revocations.get(username);
+        if (revokedBefore == null) {
+            return false;
+        }
+
+        return issuedAtMillis == null || issuedAtMillis < revokedBefore;
+    }
+
+}
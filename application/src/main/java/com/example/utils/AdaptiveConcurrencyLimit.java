@@ -0,0 +1,175 @@
+package com.example.utils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit learning how many requests can be in flight at once from their latency, following the gradient
+ * algorithm of Netflix concurrency-limits. Latencies are averaged over short windows and compared with a long-term
+ * average: as long as they stay within the tolerance, the limit grows by about its square root per window, and once
+ * requests start queueing somewhere down the line the limit shrinks proportionally to the slowdown, but never by more
+ * than half. Windows in which less than half of the limit was used say nothing about the capacity and leave the limit
+ * unchanged.
+ * <p>
+ * Lower priorities may only use a share of the limit, so they are refused first and the remaining capacity is kept
+ * for the more important requests.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    /**
+     * Number of windows the long-term latency is averaged over.
+     */
+    private static final int LONG_WINDOWS = 100;
+
+    /**
+     * Priority of a request, defining the share of the limit requests of this priority may use.
+     */
+    public enum Priority {
+
+        CRITICAL(1.0),
+        NORMAL(0.9),
+        LOW(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+
+    }
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final long windowNanos;
+    private final int windowSamples;
+    private final LongSupplier clock;
+
+    private volatile double limit;
+
+    private double longRtt;
+    private long windowStart;
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+
+    /**
+     * Creates a limit.
+     *
+     * @param initialLimit  the limit before any latency is observed
+     * @param minLimit      the lowest the limit can shrink to
+     * @param maxLimit      the highest the limit can grow to
+     * @param smoothing     the fraction of the newly computed limit blended into the current one after each window
+     * @param tolerance     the ratio of the short-term latency to the long-term one tolerated before shrinking
+     * @param window        the minimum duration of a window
+     * @param windowSamples the minimum number of requests in a window
+     * @param clock         the source of the current time in nanoseconds
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance,
+                                    Duration window, int windowSamples, LongSupplier clock) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.windowNanos = window.toNanos();
+        this.windowSamples = windowSamples;
+        this.clock = clock;
+        this.windowStart = clock.getAsLong();
+    }
+
+    /**
+     * Takes a slot for a request unless the share of the limit available to its priority is used up.
+     * Every successful call must be followed by a call to {@link #release(long)}.
+     *
+     * @param priority the priority of the request
+     * @return true if the request may proceed, false if it has to be refused
+     */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share));
+
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot of a completed request and records its latency.
+     *
+     * @param rttNanos the time the request took in nanoseconds
+     */
+    public void release(long rttNanos) {
+        sample(rttNanos, inFlight.getAndDecrement());
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the number of requests allowed in flight at once
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of requests currently in flight.
+     *
+     * @return the number of requests holding a slot
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(long rttNanos, int currentInFlight) {
+        windowRttSum += rttNanos;
+        windowCount++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, currentInFlight);
+
+        long now = clock.getAsLong();
+        if (windowCount < windowSamples || now - windowStart < windowNanos) {
+            return;
+        }
+
+        update((double) windowRttSum / windowCount, windowMaxInFlight);
+
+        windowStart = now;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+    }
+
+    private void update(double shortRtt, int maxInFlight) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) / LONG_WINDOWS;
+        }
+
+        // After a slow period the long-term average stays inflated for a while, let it catch up with the recovery
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double current = limit;
+        if (maxInFlight < current / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double smoothed = current * (1 - smoothing) + target * smoothing;
+
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+
+}
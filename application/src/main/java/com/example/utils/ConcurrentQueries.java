@@ -0,0 +1,174 @@
+package com.example.utils;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * Utility class for running independent queries concurrently, so that a request waits for its slowest query
+ * instead of the sum of all of them. Queries run on a bounded executor backed by virtual threads when they are
+ * enabled and by a fixed pool of platform threads otherwise, in which case a saturated pool runs the query on the
+ * calling thread. As soon as one query fails, the others are cancelled and its exception is rethrown unchanged.
+ * <p>
+ * Queries started from within a query run one after another on the calling thread. Submitting them to the same
+ * bounded executor could otherwise deadlock once every worker waits for inner queries that are queued behind it.
+ */
+@Component
+public class ConcurrentQueries {
+
+    private static final ThreadLocal<Boolean> IN_QUERY = new ThreadLocal<>();
+
+    private final Executor executor;
+
+    @Autowired
+    public ConcurrentQueries(Environment environment,
+                             @Value("${queries.concurrency:16}") int concurrency,
+                             @Value("${queries.queue-capacity:256}") int queueCapacity) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            var virtualExecutor = new SimpleAsyncTaskExecutor("query-");
+            virtualExecutor.setVirtualThreads(true);
+            virtualExecutor.setConcurrencyLimit(concurrency);
+            this.executor = virtualExecutor;
+        } else {
+            var platformExecutor = new ThreadPoolTaskExecutor();
+            platformExecutor.setCorePoolSize(concurrency);
+            platformExecutor.setMaxPoolSize(concurrency);
+            platformExecutor.setQueueCapacity(queueCapacity);
+            platformExecutor.setThreadNamePrefix("query-");
+            platformExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+            platformExecutor.initialize();
+            this.executor = platformExecutor;
+        }
+    }
+
+    /**
+     * Creates an instance running the queries on the given executor.
+     *
+     * @param executor the executor to run the queries on
+     */
+    public ConcurrentQueries(Executor executor) {
+        this.executor = executor;
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        if (executor instanceof DisposableBean disposable) {
+            disposable.destroy();
+        } else if (executor instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Runs two queries concurrently.
+     *
+     * @param first  the first query
+     * @param second the second query
+     * @param <A>    the result type of the first query
+     * @param <B>    the result type of the second query
+     * @return a pair of the results in the order of the queries
+     */
+    @SuppressWarnings("unchecked")
+    public <A, B> Pair<A, B> run(Supplier<A> first, Supplier<B> second) {
+        var results = invokeAll(List.of(first, second));
+
+        return Pair.of((A) results[0], (B) results[1]);
+    }
+
+    /**
+     * Runs three queries concurrently.
+     *
+     * @param first  the first query
+     * @param second the second query
+     * @param third  the third query
+     * @param <A>    the result type of the first query
+     * @param <B>    the result type of the second query
+     * @param <C>    the result type of the third query
+     * @return a triple of the results in the order of the queries
+     */
+    @SuppressWarnings("unchecked")
+    public <A, B, C> Triple<A, B, C> run(Supplier<A> first, Supplier<B> second, Supplier<C> third) {
+        var results = invokeAll(List.of(first, second, third));
+
+        return Triple.of((A) results[0], (B) results[1], (C) results[2]);
+    }
+
+    private Object[] invokeAll(List<Supplier<?>> queries) {
+        if (IN_QUERY.get() != null) {
+            return queries.stream().map(Supplier::get).toArray();
+        }
+
+        var completionService = new ExecutorCompletionService<Object>(executor);
+        var futures = new ArrayList<Future<Object>>(queries.size());
+        var indexes = new HashMap<Future<Object>, Integer>();
+
+        try {
+            for (var query : queries) {
+                var future = completionService.submit(() -> runQuery(query));
+                indexes.put(future, futures.size());
+                futures.add(future);
+            }
+
+            var results = new Object[queries.size()];
+            for (int i = 0; i < queries.size(); i++) {
+                var future = completionService.take();
+                results[indexes.get(future)] = future.get();
+            }
+
+            return results;
+        } catch (ExecutionException e) {
+            cancel(futures);
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for queries");
+        } catch (RuntimeException e) {
+            cancel(futures);
+            throw e;
+        }
+    }
+
+    private static Object runQuery(Supplier<?> query) {
+        IN_QUERY.set(Boolean.TRUE);
+        try {
+            return query.get();
+        } finally {
+            IN_QUERY.remove();
+        }
+    }
+
+    private static void cancel(List<Future<Object>> futures) {
+        futures.forEach(future -> future.cancel(true));
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException exception) {
+            return exception;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+}
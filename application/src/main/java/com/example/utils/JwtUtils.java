@@ -4,137 +4,94 @@ import com.example.model.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.Date;
 import java.util.Map;
-import java.util.function.Function;
 
 /**
  * Utility class for working with JWT (JSON Web Tokens).
- * Provides methods for generating, parsing, and validating JWT tokens.
+ * Provides methods for generating and parsing access tokens. The signing key and the parser are immutable
+ * and thread-safe, so they are built once instead of for every token.
  */
-@Slf4j
 @Component
 public class JwtUtils {
 
-    @Value("${jwt.secret}")
-    private String access;
+    /**
+     * Claim holding the issue time of the token in epoch milliseconds, the standard one being truncated to seconds.
+     */
+    public static final String ISSUED_AT_MILLIS = "iat_ms";
+
+    private final Key accessKey;
+    private final JwtParser accessParser;
+
+    public JwtUtils(@Value("${jwt.secret}") String access) {
+        this.accessKey = getSignInKey(access);
+        this.accessParser = Jwts.parserBuilder()
+                .setSigningKey(accessKey)
+                .build();
+    }
 
     /**
      * Generates an access token (JWT) for a given user with additional claims.
+     * The issue time is recorded to the millisecond, so the token can be revoked by deleting the user or changing
+     * the password, and told apart from the revocation even within the same second.
      *
      * @param extraClaims additional claims to include in the token
      * @param user        the user for whom the token is generated
      * @return a JWT token as a String
      */
     public String generateAccessToken(Map<String, Object> extraClaims, User user) {
+        var issuedAt = new Date();
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(user.getUsername())
-                .signWith(getSignInKey(access), SignatureAlgorithm.HS256)
+                .setIssuedAt(issuedAt)
+                .claim(ISSUED_AT_MILLIS, issuedAt.getTime())
+                .signWith(accessKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     /**
-     * Converts a base64 encoded string into a secret key.
-     *
-     * @param key the base64 encoded secret key string
-     * @return a Key object used for signing the token
-     */
-    public Key getSignInKey(String key) {
-        var keyBytes = Decoders.BASE64.decode(key);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    /**
-     * Extracts the username (subject) from the access token.
-     *
-     * @param token the JWT token
-     * @return the username from the token
-     */
-    public String extractAccessUsername(String token) {
-        return extractUsername(token, access);
-    }
-
-    /**
-     * Extracts the claim (subject) from the JWT token using a specific key.
+     * Returns the issue time of a token in epoch milliseconds, falling back to the standard claim, truncated to the
+     * second, for the tokens issued before the millisecond claim was added.
      *
-     * @param token the JWT token
-     * @param key   the key used to validate the token
-     * @return the claim (subject) from the token
+     * @param claims the claims of the token
+     * @return the issue time in epoch milliseconds, or {@code null} if the token has none
      */
-    private String extractUsername(String token, String key) {
-        return extractClaim(token, key, Claims::getSubject);
+    public static Long getIssuedAtMillis(Claims claims) {
+        var issuedAt = claims.get(ISSUED_AT_MILLIS, Long.class);
+        if (issuedAt != null) {
+            return issuedAt;
+        }
+        return claims.getIssuedAt() == null ? null : claims.getIssuedAt().getTime();
     }
 
     /**
-     * Extracts a specific claim from the JWT token.
+     * Converts a base64 encoded string into a secret key.
      *
-     * @param token          the JWT token
-     * @param key            the key used to validate the token
-     * @param claimsResolver a function to extract the desired claim
-     * @param <T>            the type of the claim to extract
-     * @return the extracted claim
+     * @param key the base64 encoded secret key string
+     * @return a Key object used for signing the token
      */
-    public <T> T extractClaim(String token, String key, Function<Claims, T> claimsResolver) {
-        var claims = extractAllClaims(token, key);
-        return claimsResolver.apply(claims);
+    public static Key getSignInKey(String key) {
+        var keyBytes = Decoders.BASE64.decode(key);
+        return Keys.hmacShaKeyFor(keyBytes);
     }
 
     /**
-     * Extracts all claims from the JWT token.
+     * Verifies the signature of an access token and extracts its claims in a single parse.
      *
      * @param token the JWT token
-     * @param key   the key used to validate the token
      * @return the claims from the token
+     * @throws JwtException if the token is expired, malformed or not signed with the access key
      */
-    public Claims extractAllClaims(String token, String key) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey(key))
-                .build()
+    public Claims parseAccessToken(String token) {
+        return accessParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    /**
-     * Validates whether the provided access token is valid.
-     *
-     * @param token the JWT token
-     * @return true if the token is valid, false otherwise
-     */
-    public boolean isAccessTokenValid(String token) {
-        return isTokenValid(token, access);
-    }
-
-    /**
-     * Validates a JWT token using a specific key.
-     *
-     * @param token the JWT token
-     * @param key   the key used to validate the token
-     * @return true if the token is valid, false otherwise
-     */
-    private boolean isTokenValid(String token, String key) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSignInKey(key))
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (ExpiredJwtException expEx) {
-            log.error("token expired", expEx);
-        } catch (UnsupportedJwtException unsEx) {
-            log.error("unsupported jwt", unsEx);
-        } catch (MalformedJwtException mjEx) {
-            log.error("malformed jwt", mjEx);
-        } catch (Exception e) {
-            log.error("invalid token", e);
-        }
-        return false;
-    }
-
 }
@@ -0,0 +1,152 @@
+package com.example.utils;
+
+import com.example.metrics.JwtVerificationDuration;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Component verifying access tokens for the authentication filter.
+ * Each token is parsed and verified once, after which its claims are kept in a bounded cache keyed by the SHA-256
+ * hash of the token, so the tokens themselves are not held in memory. A cached entry lives no longer than the
+ * configured time to live and never past the expiration of its token.
+ */
+@Slf4j
+@Component
+public class JwtVerifier {
+
+    private final JwtUtils jwtUtils;
+    private final JwtVerificationDuration jwtVerificationDuration;
+
+    private final Cache<ByteBuffer, Claims> verified;
+
+    @Autowired
+    public JwtVerifier(JwtUtils jwtUtils,
+                       JwtVerificationDuration jwtVerificationDuration,
+                       @Value("${jwt.verified-cache-size:10000}") long cacheSize,
+                       @Value("${jwt.verified-cache-ttl:PT5M}") Duration cacheTtl) {
+        this(jwtUtils, jwtVerificationDuration, cacheSize, cacheTtl, Ticker.systemTicker(), Clock.systemUTC());
+    }
+
+    /**
+     * Creates an instance expiring the cached tokens by the given time sources.
+     *
+     * @param ticker the time source of the cache
+     * @param clock  the wall clock the expiration of the tokens is compared to
+     */
+    public JwtVerifier(JwtUtils jwtUtils,
+                       JwtVerificationDuration jwtVerificationDuration,
+                       long cacheSize,
+                       Duration cacheTtl,
+                       Ticker ticker,
+                       Clock clock) {
+        this.jwtUtils = jwtUtils;
+        this.jwtVerificationDuration = jwtVerificationDuration;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new TokenExpiry(cacheTtl.toNanos(), clock))
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Verifies an access token and returns its claims.
+     *
+     * @param token the JWT token
+     * @return an {@link Optional} containing the claims if the token is valid, or empty otherwise
+     */
+    public Optional<Claims> verify(String token) {
+        long start = System.nanoTime();
+
+        var hash = ByteBuffer.wrap(sha256(token));
+        var claims = verified.getIfPresent(hash);
+        if (claims != null) {
+            jwtVerificationDuration.cached(System.nanoTime() - start);
+            return Optional.of(claims);
+        }
+
+        try {
+            claims = jwtUtils.parseAccessToken(token);
+        } catch (ExpiredJwtException expEx) {
+            log.error("token expired", expEx);
+        } catch (UnsupportedJwtException unsEx) {
+            log.error("unsupported jwt", unsEx);
+        } catch (MalformedJwtException mjEx) {
+            log.error("malformed jwt", mjEx);
+        } catch (Exception e) {
+            log.error("invalid token", e);
+        }
+
+        if (claims == null) {
+            jwtVerificationDuration.invalid(System.nanoTime() - start);
+            return Optional.empty();
+        }
+
+        verified.put(hash, claims);
+        jwtVerificationDuration.valid(System.nanoTime() - start);
+
+        return Optional.of(claims);
+    }
+
+    private static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Expires a cached token after the time to live or at its expiration, whichever comes first.
+     */
+    private static class TokenExpiry implements Expiry<ByteBuffer, Claims> {
+
+        private final long ttlNanos;
+        private final Clock clock;
+
+        TokenExpiry(long ttlNanos, Clock clock) {
+            this.ttlNanos = ttlNanos;
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return ttlNanos;
+            }
+
+            long untilExpiration = Duration.ofMillis(claims.getExpiration().getTime() - clock.millis())
+                    .toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilExpiration));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.example.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes objects as newline-delimited JSON (NDJSON) straight to a servlet response.
+ * The response is only opened on the first write, so errors raised before any row is produced
+ * can still be rendered as a regular JSON error response.
+ * The stream is flushed after every {@code flushInterval} records so that clients receive rows while the export runs.
+ * I/O failures, such as a client closing the connection, are rethrown as {@link UncheckedIOException}
+ * so that they abort the row callback that is feeding the writer.
+ */
+public class NdjsonWriter {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private final ObjectWriter objectWriter;
+    private final HttpServletResponse response;
+    private final int flushInterval;
+
+    private OutputStream outputStream;
+    private long written;
+
+    /**
+     * Creates a writer for the given response.
+     *
+     * @param objectMapper  the mapper used to serialise records
+     * @param response      the response to write to
+     * @param flushInterval the number of records written between flushes
+     */
+    public NdjsonWriter(ObjectMapper objectMapper, HttpServletResponse response, int flushInterval) {
+        this.objectWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.response = response;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Writes a single record followed by a newline.
+     *
+     * @param value the record to write
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    public void write(Object value) {
+        try {
+            var stream = open();
+            objectWriter.writeValue(stream, value);
+            stream.write('\n');
+
+            if (++written % flushInterval == 0) {
+                stream.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flushes any buffered records to the client, opening the response if nothing has been written yet.
+     *
+     * @throws UncheckedIOException if the stream cannot be flushed
+     */
+    public void flush() {
+        try {
+            open().flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the number of records written so far.
+     *
+     * @return the number of written records
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    private OutputStream open() throws IOException {
+        if (outputStream == null) {
+            response.setContentType(MEDIA_TYPE);
+            outputStream = response.getOutputStream();
+        }
+
+        return outputStream;
+    }
+
+}
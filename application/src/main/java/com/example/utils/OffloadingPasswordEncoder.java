@@ -0,0 +1,95 @@
+package com.example.utils;
+
+import com.example.exception.ServiceOverloadedException;
+import com.example.metrics.PasswordHashingQueueSize;
+import com.example.metrics.PasswordHashingRejected;
+import com.example.metrics.PasswordHashingWait;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password encoder running BCrypt on a dedicated pool with one thread per core, so a burst of logins cannot take
+ * over the request threads with CPU-bound hashing. The callers wait for their result without using any CPU.
+ * When the bounded queue of the pool is full, hashing is refused with a {@link ServiceOverloadedException}
+ * instead of piling up requests that would time out anyway.
+ */
+@Component
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate = new BCryptPasswordEncoder();
+    private final ThreadPoolExecutor executor;
+
+    private final PasswordHashingWait passwordHashingWait;
+    private final PasswordHashingRejected passwordHashingRejected;
+
+    public OffloadingPasswordEncoder(PasswordHashingWait passwordHashingWait,
+                                     PasswordHashingRejected passwordHashingRejected,
+                                     PasswordHashingQueueSize passwordHashingQueueSize,
+                                     @Value("${auth.hashing-threads:0}") int threads,
+                                     @Value("${auth.hashing-queue-capacity:64}") int queueCapacity) {
+        this.passwordHashingWait = passwordHashingWait;
+        this.passwordHashingRejected = passwordHashingRejected;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        passwordHashingQueueSize.monitor(executor);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return offload(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return offload(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T offload(Callable<T> task) {
+        long submitted = System.nanoTime();
+
+        try {
+            return executor.submit(() -> {
+                passwordHashingWait.record(System.nanoTime() - submitted);
+                return task.call();
+            }).get();
+        } catch (RejectedExecutionException e) {
+            passwordHashingRejected.increment();
+            throw new ServiceOverloadedException("Too many authentication requests, try again later");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException exception) {
+                throw exception;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for password hashing");
+        }
+    }
+
+}
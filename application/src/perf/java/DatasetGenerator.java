@@ -0,0 +1,539 @@
+package com.example.perf;
+
+import com.example.model.enumeration.LotStatus;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Generator of a synthetic auction house, loaded with COPY into the schema created by Liquibase. At scale 1 it makes
+ * 10 000 users, 20 000 items and 500 000 lots, and every volume grows linearly with {@code --dataset.scale}.
+ * <p>
+ * Items are arranged in tiers, from raw materials to finished goods, and each crafted item depends on up to
+ * {@code --dataset.fan-out} items of lower tiers, one of them from the tier right below, so the crafting graph is
+ * acyclic and {@code --dataset.depth} levels deep. Sellers, the items put up for sale and the favourites all follow
+ * Zipf distributions, giving a few hot items and power users. Lots cover the last year, a tenth of them listed in
+ * the last week: those that ended are sold or expired, the others are mostly active, with and without bids.
+ * <p>
+ * The data only depends on {@code --dataset.seed}, with times relative to the moment of the generation. Every user
+ * has the password {@code password}. The rows are copied with triggers and foreign key checks disabled, which requires
+ * a superuser, and the application should be restarted afterwards to drop its caches. Options:
+ * {@code --dataset.url}, {@code --dataset.username}, {@code --dataset.password} and {@code --dataset.replace=true} to
+ * truncate existing data.
+ */
+public class DatasetGenerator {
+
+    private static final int USERS = 10_000;
+    private static final int ITEMS = 20_000;
+    private static final int LOTS = 500_000;
+    private static final int FAVOURITES_PER_USER = 10;
+    private static final int HISTORY_DAYS = 365;
+    private static final double LIVE_SHARE = 0.1;
+    private static final long LIVE_SECONDS = 7 * 86_400L;
+
+    static final String PASSWORD = "password";
+
+    private static final List<String> MATERIALS = List.of("Iron", "Copper", "Silver", "Gold", "Mithril", "Oak",
+            "Ash", "Yew", "Linen", "Silk", "Leather", "Bone", "Crystal", "Obsidian", "Amber", "Jade");
+    private static final List<String> QUALITIES = List.of("Crude", "Common", "Fine", "Superior", "Masterwork",
+            "Ancient", "Blessed", "Cursed");
+    private static final List<List<String>> PRODUCTS = List.of(
+            List.of("Ore", "Log", "Hide", "Fibre", "Shard", "Dust"),
+            List.of("Bar", "Plank", "Thread", "Plate", "Ring", "Rod"),
+            List.of("Blade", "Helm", "Shield", "Bow", "Staff", "Amulet", "Gloves"),
+            List.of("Sword", "Armour", "Longbow", "Wand", "Crown", "Gauntlets")
+    );
+
+    private final long seed;
+    private final int users;
+    private final int items;
+    private final int lots;
+    private final int depth;
+    private final int fanOut;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private int[] tiers;
+    private long[] basePrices;
+
+    public DatasetGenerator(long seed, double scale, int depth, int fanOut) {
+        this.seed = seed;
+        this.users = Math.max(10, (int) (USERS * scale));
+        this.items = Math.max(10, (int) (ITEMS * scale));
+        this.lots = Math.max(10, (int) (LOTS * scale));
+        this.depth = depth;
+        this.fanOut = fanOut;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        var options = new SimpleCommandLinePropertySource(args);
+        var url = Objects.requireNonNullElse(options.getProperty("dataset.url"),
+                "jdbc:postgresql://localhost:5432/coursework");
+        var username = Objects.requireNonNullElse(options.getProperty("dataset.username"), "postgres");
+        var password = Objects.requireNonNullElse(options.getProperty("dataset.password"), "postgres");
+        var generator = new DatasetGenerator(
+                Long.parseLong(Objects.requireNonNullElse(options.getProperty("dataset.seed"), "42")),
+                Double.parseDouble(Objects.requireNonNullElse(options.getProperty("dataset.scale"), "1")),
+                Integer.parseInt(Objects.requireNonNullElse(options.getProperty("dataset.depth"), "4")),
+                Integer.parseInt(Objects.requireNonNullElse(options.getProperty("dataset.fan-out"), "3"))
+        );
+        var replace = Boolean.parseBoolean(options.getProperty("dataset.replace"));
+
+        try (var connection = DriverManager.getConnection(url, username, password)) {
+            generator.generate(connection, replace);
+        }
+    }
+
+    /**
+     * Generates the dataset in a single transaction, then vacuums the tables with {@code freeze} and {@code analyze}.
+     * Freshly copied pages are not yet marked all-visible, so without the vacuum index-only scans read the heap
+     * and the plans differ from those of a database that has been running for a while.
+     *
+     * @param connection the connection to the database
+     * @param replace    whether to truncate the existing data instead of refusing to run
+     * @throws SQLException if the data cannot be loaded
+     */
+    public void generate(Connection connection, boolean replace) throws SQLException {
+        var copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        long start = System.nanoTime();
+
+        connection.setAutoCommit(false);
+        try (var statement = connection.createStatement()) {
+            try (var resultSet = statement.executeQuery(
+                    "select exists (select from _user) or exists (select from item)")) {
+                resultSet.next();
+                if (resultSet.getBoolean(1)) {
+                    if (!replace) {
+                        throw new IllegalStateException("The database already has data, "
+                                + "pass --dataset.replace=true to truncate it");
+                    }
+                    statement.execute("truncate _user, item restart identity cascade");
+                }
+            }
+            statement.execute("set local session_replication_role = replica");
+
+            timed("_user, password", () -> copyUsers(copyManager));
+            timed("item, item_category", () -> copyItems(copyManager));
+            timed("dependency", () -> copyDependencies(copyManager));
+            timed("favourite", () -> copyFavourites(copyManager));
+            timed("lot", () -> copyLots(copyManager));
+
+            for (var table : List.of("lot", "lot_cost_information", "lot_time_information", "lot_status_information",
+                    "dependency", "favourite")) {
+                var column = table.equals("lot") || table.equals("dependency") || table.equals("favourite")
+                        ? "id" : "lot_id";
+                statement.execute("select setval(pg_get_serial_sequence('" + table + "', '" + column + "'), "
+                        + "coalesce((select max(" + column + ") from " + table + "), 0) + 1, false)");
+            }
+            statement.execute("select bump_catalog_version('CATEGORIES', 0), bump_catalog_version('DEPENDENCIES', 0)");
+
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+
+        connection.setAutoCommit(true);
+        try (var statement = connection.createStatement()) {
+            statement.execute("vacuum (freeze, analyze)");
+        }
+
+        System.out.printf("Generated %d users, %d items and %d lots in %d s%n",
+                users, items, lots, (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    private void copyUsers(CopyManager copyManager) throws SQLException {
+        var random = random(1);
+        var hash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        try (var userCopy = new CopyWriter(copyManager, "_user", "login, birth_date, registration_date")) {
+            for (int i = 0; i < users; i++) {
+                userCopy.row(login(i),
+                        LocalDate.of(1960, 1, 1).plusDays(random.nextInt(46 * 365)),
+                        now.toLocalDate().minusDays(random.nextInt(5 * 365)));
+            }
+            userCopy.finish();
+        }
+        try (var passwordCopy = new CopyWriter(copyManager, "password", "user_login, password")) {
+            for (int i = 0; i < users; i++) {
+                passwordCopy.row(login(i), hash);
+            }
+            passwordCopy.finish();
+        }
+    }
+
+    private void copyItems(CopyManager copyManager) throws SQLException {
+        var random = random(2);
+        tiers = new int[items];
+        basePrices = new long[items];
+
+        int rawItems = (int) (items * 0.4);
+        for (int i = 0; i < items; i++) {
+            tiers[i] = i < rawItems ? 0 : 1 + (int) ((long) (i - rawItems) * depth / (items - rawItems));
+            basePrices[i] = Math.max(1, Math.round(Math.exp(Math.log(100) + tiers[i] + random.nextGaussian() * 0.5)));
+        }
+
+        var categories = new String[items];
+        try (var itemCopy = new CopyWriter(copyManager, "item", "id, name, properties")) {
+            for (int i = 0; i < items; i++) {
+                var products = PRODUCTS.get(Math.min(tiers[i], PRODUCTS.size() - 1));
+                var product = products.get(random.nextInt(products.size()));
+                var name = QUALITIES.get(random.nextInt(QUALITIES.size())) + " "
+                        + MATERIALS.get(random.nextInt(MATERIALS.size())) + " " + product;
+                var properties = "{\"tier\": " + tiers[i] + ", \"weight\": " + (1 + random.nextInt(50)) + "}";
+
+                categories[i] = product.toLowerCase(Locale.ROOT);
+                itemCopy.row(id(i), name, properties);
+            }
+            itemCopy.finish();
+        }
+        try (var categoryCopy = new CopyWriter(copyManager, "item_category", "item_id, category")) {
+            for (int i = 0; i < items; i++) {
+                categoryCopy.row(id(i), categories[i]);
+            }
+            categoryCopy.finish();
+        }
+    }
+
+    private void copyDependencies(CopyManager copyManager) throws SQLException {
+        var random = random(3);
+
+        var tierStarts = new int[depth + 2];
+        for (int i = items - 1; i >= 0; i--) {
+            tierStarts[tiers[i]] = i;
+        }
+        tierStarts[depth + 1] = items;
+        var tierDistributions = new Zipf[depth + 1];
+        for (int tier = 0; tier <= depth; tier++) {
+            int size = tierStarts[tier + 1] - tierStarts[tier];
+            tierDistributions[tier] = size > 0 ? new Zipf(size, 0.8, random) : null;
+        }
+
+        long id = 1;
+        try (var dependencyCopy = new CopyWriter(copyManager, "dependency", "id, item_first_id, item_second_id")) {
+            for (int i = 0; i < items; i++) {
+                int tier = tiers[i];
+                if (tier == 0) {
+                    continue;
+                }
+
+                var ingredients = new HashSet<Integer>();
+                int count = 1 + random.nextInt(fanOut);
+                for (int j = 0; j < count; j++) {
+                    int ingredientTier = j == 0 ? tier - 1 : random.nextInt(tier);
+                    if (tierDistributions[ingredientTier] == null) {
+                        continue;
+                    }
+
+                    int ingredient = tierStarts[ingredientTier] + tierDistributions[ingredientTier].next(random);
+                    if (ingredients.add(ingredient)) {
+                        dependencyCopy.row(id++, id(i), id(ingredient));
+                    }
+                }
+            }
+            dependencyCopy.finish();
+        }
+    }
+
+    private void copyFavourites(CopyManager copyManager) throws SQLException {
+        var random = random(4);
+        var itemDistribution = new Zipf(items, 1.0, random);
+        int maxFavourites = Math.min(items / 2, 20 * FAVOURITES_PER_USER);
+
+        long id = 1;
+        try (var favouriteCopy = new CopyWriter(copyManager, "favourite", "id, user_login, item_id")) {
+            for (int i = 0; i < users; i++) {
+                int count = Math.min(maxFavourites,
+                        (int) (-Math.log(1 - random.nextDouble()) * FAVOURITES_PER_USER));
+                var favourites = new HashSet<Integer>();
+                while (favourites.size() < count) {
+                    favourites.add(itemDistribution.next(random));
+                }
+                for (int item : favourites) {
+                    favouriteCopy.row(id++, login(i), id(item));
+                }
+            }
+            favouriteCopy.finish();
+        }
+    }
+
+    private void copyLots(CopyManager copyManager) throws SQLException {
+        try (var lotCopy = new CopyWriter(copyManager, "lot", "id, user_login, item_id")) {
+            forEachLot(lot -> lotCopy.row(lot.id, login(lot.seller), id(lot.item)));
+            lotCopy.finish();
+        }
+        try (var costCopy = new CopyWriter(copyManager, "lot_cost_information",
+                "lot_id, cost_start, cost_current, cost_buy, bidder_login")) {
+            forEachLot(lot -> costCopy.row(lot.id, lot.costStart, lot.costCurrent, lot.costBuy,
+                    lot.bidder < 0 ? null : login(lot.bidder)));
+            costCopy.finish();
+        }
+        try (var timeCopy = new CopyWriter(copyManager, "lot_time_information",
+                "lot_id, time_start, time_end, time_finish")) {
+            forEachLot(lot -> timeCopy.row(lot.id, lot.timeStart, lot.timeEnd, lot.timeFinish));
+            timeCopy.finish();
+        }
+        try (var statusCopy = new CopyWriter(copyManager, "lot_status_information", "lot_id, status")) {
+            forEachLot(lot -> statusCopy.row(lot.id, lot.status));
+            statusCopy.finish();
+        }
+    }
+
+    /**
+     * Generates the lots, the same ones on every call, so that each lot table can be copied in turn.
+     */
+    private void forEachLot(Consumer<Lot> consumer) {
+        var random = random(5);
+        var distributions = lotDistributions(random);
+        var sellerDistribution = distributions[0];
+        var bidderDistribution = distributions[1];
+        var itemDistribution = distributions[2];
+        long historySeconds = HISTORY_DAYS * 86_400L;
+
+        var lot = new Lot();
+        for (int i = 0; i < lots; i++) {
+            lot.id = i + 1;
+            lot.seller = sellerDistribution.next(random);
+            lot.item = itemDistribution.next(random);
+
+            double position = (double) i / lots;
+            long startOffset = random.nextInt(3_600) + (position < 1 - LIVE_SHARE
+                    ? historySeconds - (long) ((historySeconds - LIVE_SECONDS) * position / (1 - LIVE_SHARE))
+                    : (long) (LIVE_SECONDS * (1 - position) / LIVE_SHARE));
+            long endOffset = startOffset - 86_400L * (1 + random.nextInt(14));
+            lot.timeStart = now.minusSeconds(startOffset);
+            lot.timeEnd = now.minusSeconds(endOffset);
+
+            lot.costStart = Math.max(1, Math.round(basePrices[lot.item] * (0.7 + random.nextDouble() * 0.4)));
+            lot.costBuy = Math.round(lot.costStart * (1.5 + random.nextDouble() * 1.5));
+            lot.costCurrent = lot.costStart;
+            lot.bidder = -1;
+
+            boolean ended = endOffset > 0;
+            double outcome = random.nextDouble();
+            if (ended ? outcome < 0.4 : outcome < 0.1) {
+                lot.status = LotStatus.SOLD;
+                lot.timeFinish = now.minusSeconds(Math.max(0, endOffset) + (long) (random.nextDouble()
+                        * (startOffset - Math.max(0, endOffset))));
+                lot.costCurrent = lot.costBuy;
+                lot.bidder = bidderDistribution.next(random);
+            } else {
+                lot.status = ended ? LotStatus.EXPIRED : LotStatus.ACTIVE;
+                lot.timeFinish = ended ? lot.timeEnd : null;
+                if (random.nextDouble() < (ended ? 0.3 : 0.5)) {
+                    lot.costCurrent = lot.costStart + (long) (random.nextDouble() * (lot.costBuy - lot.costStart));
+                    lot.bidder = bidderDistribution.next(random);
+                }
+            }
+            if (lot.bidder == lot.seller) {
+                lot.bidder = (lot.bidder + 1) % users;
+            }
+
+            consumer.accept(lot);
+        }
+    }
+
+    /**
+     * Returns the distribution the items of the lots are drawn from, so that a load can favour the same items.
+     *
+     * @return the distribution of the item indexes, to be turned into IDs with {@link #id(int)}
+     */
+    public Zipf lotItems() {
+        return lotDistributions(random(5))[2];
+    }
+
+    /**
+     * Returns the number of generated users.
+     *
+     * @return the number of users
+     */
+    public int getUsers() {
+        return users;
+    }
+
+    /**
+     * Returns the number of generated items.
+     *
+     * @return the number of items
+     */
+    public int getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the words the item names are made of.
+     *
+     * @return the qualities, materials and products of the items
+     */
+    static List<String> nameWords() {
+        var words = new ArrayList<>(QUALITIES);
+        words.addAll(materials());
+        words.addAll(products());
+        return words;
+    }
+
+    /**
+     * Returns the materials the item names are made of.
+     *
+     * @return the materials of the items
+     */
+    static List<String> materials() {
+        return MATERIALS;
+    }
+
+    /**
+     * Returns the products the item names end with, across all tiers.
+     *
+     * @return the products of the items
+     */
+    static List<String> products() {
+        return PRODUCTS.stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * Creates the seller, bidder and item distributions of the lots, always in this order from the given stream.
+     */
+    private Zipf[] lotDistributions(SplittableRandom random) {
+        return new Zipf[]{
+                new Zipf(users, 1.1, random),
+                new Zipf(users, 0.8, random),
+                new Zipf(items, 1.0, random)
+        };
+    }
+
+    private SplittableRandom random(int stream) {
+        return new SplittableRandom(seed * 31 + stream);
+    }
+
+    static String login(int user) {
+        return "user" + (user + 1) + "@example.com";
+    }
+
+    static int id(int item) {
+        return item + 1;
+    }
+
+    private static void timed(String tables, CopyTask task) throws SQLException {
+        long start = System.nanoTime();
+        task.run();
+        System.out.printf("Copied %s in %d ms%n", tables, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @FunctionalInterface
+    private interface CopyTask {
+
+        void run() throws SQLException;
+
+    }
+
+    /**
+     * Lot being generated, reused from one lot to the next.
+     */
+    private static class Lot {
+
+        private long id;
+        private int seller;
+        private int item;
+        private long costStart;
+        private long costCurrent;
+        private long costBuy;
+        private int bidder;
+        private LocalDateTime timeStart;
+        private LocalDateTime timeEnd;
+        private LocalDateTime timeFinish;
+        private LotStatus status;
+
+    }
+
+    /**
+     * Writer of the rows of a COPY in the text format, sent to the server in large chunks.
+     */
+    private static class CopyWriter implements AutoCloseable {
+
+        private static final int CHUNK_SIZE = 1 << 16;
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(CHUNK_SIZE * 2);
+
+        CopyWriter(CopyManager copyManager, String table, String columns) throws SQLException {
+            this.copyIn = copyManager.copyIn("copy " + table + " (" + columns + ") from stdin");
+        }
+
+        void row(Object... values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                append(values[i]);
+            }
+            buffer.append('\n');
+
+            if (buffer.length() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void finish() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+
+        private void append(Object value) {
+            if (value == null) {
+                buffer.append("\\N");
+                return;
+            }
+
+            var text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\' -> buffer.append("\\\\");
+                    case '\t' -> buffer.append("\\t");
+                    case '\n' -> buffer.append("\\n");
+                    case '\r' -> buffer.append("\\r");
+                    default -> buffer.append(c);
+                }
+            }
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+
+            var bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to copy rows", e);
+            }
+            buffer.setLength(0);
+        }
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.example.perf;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies and failures of the requests to one endpoint. Latencies are recorded in microseconds, with three
+ * significant digits and a range growing as needed, so that the slowest requests are never clipped.
+ */
+public class EndpointStats {
+
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final AtomicLong errors = new AtomicLong();
+
+    /**
+     * Records a completed request.
+     *
+     * @param latencyNanos the time from the scheduled start of the request to its response
+     * @param success      whether the request succeeded
+     */
+    public void record(long latencyNanos, boolean success) {
+        latencies.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+}
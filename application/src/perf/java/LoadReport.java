@@ -0,0 +1,122 @@
+package com.example.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Result of a load test: per-endpoint throughput, errors and latency percentiles, with the peak number of requests in
+ * flight and the kind of threads serving them, printed as a table and written as JSON. The JSON keeps each histogram in the compressed HdrHistogram encoding, so runs can be merged or plotted later.
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final int rate;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final String requestThreads;
+    private final Map<LoadTest.Endpoint, EndpointStats> stats;
+
+    public LoadReport(int rate, Duration duration, int maxInFlight, String requestThreads,
+                      Map<LoadTest.Endpoint, EndpointStats> stats) {
+        this.rate = rate;
+        this.duration = duration;
+        this.maxInFlight = maxInFlight;
+        this.requestThreads = requestThreads;
+        this.stats = stats;
+    }
+
+    /**
+     * Formats the report as a table with latencies in milliseconds.
+     *
+     * @return the table, one line per endpoint that received requests
+     */
+    public String toTable() {
+        var table = new StringBuilder(String.format(Locale.ROOT, "%-12s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max"));
+
+        stats.forEach((endpoint, endpointStats) -> {
+            var latencies = endpointStats.getLatencies();
+            if (latencies.getTotalCount() == 0) {
+                return;
+            }
+
+            table.append(String.format(Locale.ROOT, "%-12s %8d %7d %9.1f", endpoint.getLabel(),
+                    latencies.getTotalCount(), endpointStats.getErrors(), throughput(latencies)));
+            for (double percentile : PERCENTILES) {
+                table.append(String.format(Locale.ROOT, " %9.2f", millis(latencies.getValueAtPercentile(percentile))));
+            }
+            table.append(String.format(Locale.ROOT, " %9.2f%n", millis(latencies.getMaxValue())));
+        });
+        table.append(String.format(Locale.ROOT, "%nrequest threads: %s, max in flight: %d%n",
+                requestThreads, maxInFlight));
+        return table.toString();
+    }
+
+    /**
+     * Writes the report as JSON.
+     *
+     * @param file the file to write, whose parent directories are created if needed
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        var objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        var root = objectMapper.createObjectNode()
+                .put("rate", rate)
+                .put("duration_seconds", duration.toSeconds())
+                .put("max_in_flight", maxInFlight)
+                .put("request_threads", requestThreads);
+        var endpoints = root.putObject("endpoints");
+        stats.forEach((endpoint, endpointStats) -> {
+            var latencies = endpointStats.getLatencies();
+            if (latencies.getTotalCount() == 0) {
+                return;
+            }
+
+            var node = endpoints.putObject(endpoint.getLabel())
+                    .put("count", latencies.getTotalCount())
+                    .put("errors", endpointStats.getErrors())
+                    .put("throughput", throughput(latencies));
+            var percentiles = node.putObject("latency_ms");
+            for (double percentile : PERCENTILES) {
+                percentiles.put("p" + String.valueOf(percentile).replace(".0", ""),
+                        millis(latencies.getValueAtPercentile(percentile)));
+            }
+            percentiles.put("mean", latencies.getMean() / 1_000);
+            percentiles.put("max", millis(latencies.getMaxValue()));
+            node.put("histogram", encode(latencies));
+        });
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writeValue(file.toFile(), root);
+    }
+
+    private double throughput(Histogram latencies) {
+        return latencies.getTotalCount() / (double) Math.max(1, duration.toMillis()) * 1_000;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static String encode(Histogram histogram) {
+        var buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+}
@@ -0,0 +1,418 @@
+package com.example.perf;
+
+import com.example.Application;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the whole service. Unless {@code --perf.base-url} points to a running instance,
+ * the application is started in-process with the given arguments, against the database of its configuration.
+ * <p>
+ * Requests are sent at a fixed arrival rate whatever the response times, following a weighted mix of the real
+ * endpoints, and each latency is measured from the moment the request was scheduled rather than sent, so a stalled
+ * service shows up in the percentiles instead of silently lowering the load (coordinated omission). Latencies after
+ * the warm-up are recorded per endpoint in HdrHistograms and reported as a percentile table and as JSON.
+ * <p>
+ * The load is shaped like the dataset made by {@link DatasetGenerator}: item IDs are drawn over the whole catalogue
+ * with the same Zipf distribution as the items of its lots, searches use prefixes and pairs of the words the item
+ * names are made of over the first pages, and requests are spread over generated users that have favourites.
+ * {@code --perf.dataset-seed} and {@code --perf.dataset-scale} must match the options the dataset was generated
+ * with; if the catalogue has another size, item IDs fall back to a Zipf distribution over the items found.
+ * <p>
+ * Options: {@code --perf.rate} requests per second, {@code --perf.duration} and {@code --perf.warmup} as ISO-8601
+ * durations, {@code --perf.mix} as {@code endpoint:weight} pairs, {@code --perf.users} the number of users to log
+ * in as, {@code --perf.seed} for the choice of requests and {@code --perf.output} for the JSON report.
+ * <p>
+ * The report also gives the peak number of requests in flight and, for an in-process application, whether requests
+ * ran on virtual threads, so that runs with and without the {@code virtual-threads} profile can be compared. That
+ * profile only takes effect on a Java 21 runtime.
+ */
+public class LoadTest {
+
+    private static final String DEFAULT_MIX = "search:30,item:30,favourites:10,lots:15,self-price:10,period:5";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SEARCH_PAGES = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+    private final int rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final LoadMix mix;
+    private final DatasetGenerator dataset;
+    private final int userCount;
+    private final String requestThreads;
+
+    /**
+     * Draws the requests, only used by the thread that schedules them.
+     */
+    private final SplittableRandom random;
+    private final List<String> searchTerms = searchTerms();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(4, Runtime.getRuntime().availableProcessors()));
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(executor)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final List<String> tokens = new ArrayList<>();
+    private Zipf itemDistribution;
+
+    public LoadTest(String baseUrl, int rate, Duration duration, Duration warmup, LoadMix mix,
+                    DatasetGenerator dataset, int userCount, long seed, String requestThreads) {
+        this.baseUrl = baseUrl;
+        this.rate = rate;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.mix = mix;
+        this.dataset = dataset;
+        this.userCount = userCount;
+        this.random = new SplittableRandom(seed);
+        this.requestThreads = requestThreads;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = new SimpleCommandLinePropertySource(args);
+        var baseUrl = options.getProperty("perf.base-url");
+        var rate = Integer.parseInt(Objects.requireNonNullElse(options.getProperty("perf.rate"), "100"));
+        var duration = Duration.parse(Objects.requireNonNullElse(options.getProperty("perf.duration"), "PT60S"));
+        var warmup = Duration.parse(Objects.requireNonNullElse(options.getProperty("perf.warmup"), "PT10S"));
+        var mix = LoadMix.parse(Objects.requireNonNullElse(options.getProperty("perf.mix"), DEFAULT_MIX));
+        var users = Integer.parseInt(Objects.requireNonNullElse(options.getProperty("perf.users"), "20"));
+        var seed = Long.parseLong(Objects.requireNonNullElse(options.getProperty("perf.seed"), "1"));
+        var dataset = new DatasetGenerator(
+                Long.parseLong(Objects.requireNonNullElse(options.getProperty("perf.dataset-seed"), "42")),
+                Double.parseDouble(Objects.requireNonNullElse(options.getProperty("perf.dataset-scale"), "1")),
+                4, 3);
+        var output = Path.of(Objects.requireNonNullElse(options.getProperty("perf.output"), "target/perf-result.json"));
+
+        ConfigurableApplicationContext context = null;
+        var requestThreads = "unknown";
+        if (baseUrl == null) {
+            var applicationArgs = new ArrayList<>(List.of(args));
+            applicationArgs.add("--server.port=0");
+            context = SpringApplication.run(Application.class, applicationArgs.toArray(String[]::new));
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            requestThreads = Runtime.version().feature() >= 21
+                    && context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                    ? "virtual" : "platform";
+        }
+
+        var loadTest = new LoadTest(baseUrl, rate, duration, warmup, mix, dataset, users, seed, requestThreads);
+        try {
+            var report = loadTest.run();
+
+            System.out.println(report.toTable());
+            report.write(output);
+            System.out.println("Report written to " + output.toAbsolutePath());
+        } finally {
+            loadTest.close();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Logs the users in and checks the size of the catalogue, then sends requests at the fixed rate until the
+     * duration has elapsed.
+     *
+     * @return the latencies recorded after the warm-up, by endpoint
+     * @throws Exception if the preparation fails or the requests do not complete in time
+     */
+    public LoadReport run() throws Exception {
+        prepare();
+
+        var stats = new EnumMap<Endpoint, EndpointStats>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+
+        var pending = new Phaser(1);
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measuredFrom = start + warmup.toNanos();
+        long end = measuredFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+
+            var endpoint = mix.next(random);
+            var endpointStats = scheduled >= measuredFrom ? stats.get(endpoint) : null;
+
+            pending.register();
+            int requests = inFlight.incrementAndGet();
+            if (endpointStats != null) {
+                maxInFlight.accumulateAndGet(requests, Math::max);
+            }
+            client.sendAsync(request(endpoint), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.decrementAndGet();
+                        if (endpointStats != null) {
+                            endpointStats.record(System.nanoTime() - scheduled,
+                                    error == null && answered(response.statusCode()));
+                        }
+                        pending.arriveAndDeregister();
+                    });
+        }
+
+        try {
+            pending.awaitAdvanceInterruptibly(pending.arrive(), REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            System.err.println("Some requests did not complete in time and are not recorded");
+        }
+
+        return new LoadReport(rate, duration, maxInFlight.get(), requestThreads, stats);
+    }
+
+    /**
+     * Indicates whether the service answered the request. Every drawn item exists, so a 404 is the answer of the
+     * self-price of an item made of something never sold.
+     */
+    private static boolean answered(int status) {
+        return status < 400 || status == 404;
+    }
+
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void prepare() throws IOException, InterruptedException {
+        for (int attempt = 0; tokens.size() < userCount && attempt < userCount * 4; attempt++) {
+            var token = authenticate(DatasetGenerator.login(random.nextInt(dataset.getUsers())));
+            if (token != null && total(authorized("/items/favourites?pageSize=1", token)) > 0) {
+                tokens.add(token);
+            }
+        }
+        if (tokens.isEmpty()) {
+            System.err.println("No generated user with favourites could log in, "
+                    + "the favourites of a new user are empty and measure nothing");
+            tokens.add(register());
+        }
+
+        long total = total(authorized("/items?pageSize=1", tokens.get(0)));
+        if (total == 0) {
+            throw new IllegalStateException("There are no items to load, generate a dataset first");
+        }
+        if (total == dataset.getItems()) {
+            itemDistribution = dataset.lotItems();
+        } else {
+            System.err.println("The catalogue has " + total + " items instead of the " + dataset.getItems()
+                    + " of the dataset options, item IDs are drawn without its popularity");
+            itemDistribution = new Zipf((int) total, 1.0, random.split());
+        }
+    }
+
+    private String authenticate(String email) throws IOException, InterruptedException {
+        var authentication = objectMapper.createObjectNode()
+                .put("email", email)
+                .put("password", DatasetGenerator.PASSWORD);
+
+        var response = client.send(HttpRequest.newBuilder(uri("/auth/authentication"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(authentication.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            return null;
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private String register() throws IOException, InterruptedException {
+        var email = "load-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+        var registration = objectMapper.createObjectNode()
+                .put("email", email)
+                .put("password", "load-test")
+                .put("birth_date", "1990-01-01");
+
+        var registered = send(HttpRequest.newBuilder(uri("/auth/registration"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(registration.toString())));
+        return registered.get("token").asText();
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        long id = DatasetGenerator.id(itemDistribution.next(random));
+        var token = tokens.get(random.nextInt(tokens.size()));
+
+        return switch (endpoint) {
+            case SEARCH -> authorized("/items?name=" + searchTerms.get(random.nextInt(searchTerms.size()))
+                    + "&pageNumber=" + random.nextInt(SEARCH_PAGES) + "&pageSize=20", token).GET().build();
+            case ITEM -> authorized("/items/" + id, token).GET().build();
+            case FAVOURITES -> authorized("/items/favourites?pageSize=20", token).GET().build();
+            case LOTS -> authorized("/items/" + id + "/lots?pageSize=20", token).GET().build();
+            case SELF_PRICE -> authorized("/items/self-price/" + id, token).GET().build();
+            case PERIOD -> authorized("/items/items-for-period?pageSize=20", token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"start\":\"2020-01-01\",\"end\":\"2030-01-01\",\"item_id\":\"" + id + "\"}"))
+                    .build();
+        };
+    }
+
+    /**
+     * Returns the search terms: prefixes of three letters and more of every word of the item names, and pairs of a
+     * material and a product, as typed in a search box.
+     */
+    private static List<String> searchTerms() {
+        var terms = new ArrayList<String>();
+        for (String word : DatasetGenerator.nameWords()) {
+            for (int length = 3; length <= word.length(); length++) {
+                var prefix = word.substring(0, length).toLowerCase(Locale.ROOT);
+                terms.add(URLEncoder.encode(prefix, StandardCharsets.UTF_8));
+            }
+        }
+        for (String material : DatasetGenerator.materials()) {
+            for (String product : DatasetGenerator.products()) {
+                terms.add(URLEncoder.encode(material + " " + product, StandardCharsets.UTF_8));
+            }
+        }
+        return terms;
+    }
+
+    private HttpRequest.Builder authorized(String path, String token) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private long total(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return send(request.GET()).get("total").asLong();
+    }
+
+    private JsonNode send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        var response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Preparation request " + response.request().uri()
+                    + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    /**
+     * Endpoints the load is spread over.
+     */
+    public enum Endpoint {
+
+        SEARCH("search"),
+        ITEM("item"),
+        FAVOURITES("favourites"),
+        LOTS("lots"),
+        SELF_PRICE("self-price"),
+        PERIOD("period");
+
+        private final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        static Endpoint of(String label) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.label.equals(label)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint " + label);
+        }
+
+    }
+
+    /**
+     * Weighted choice of the endpoint of each request.
+     */
+    public static class LoadMix {
+
+        private final Endpoint[] endpoints;
+        private final int[] cumulativeWeights;
+
+        private LoadMix(Map<Endpoint, Integer> weights) {
+            this.endpoints = weights.keySet().toArray(Endpoint[]::new);
+            this.cumulativeWeights = new int[endpoints.length];
+
+            int total = 0;
+            for (int i = 0; i < endpoints.length; i++) {
+                total += weights.get(endpoints[i]);
+                cumulativeWeights[i] = total;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("The mix must have a positive total weight");
+            }
+        }
+
+        /**
+         * Parses a mix from comma-separated {@code endpoint:weight} pairs.
+         *
+         * @param mix the mix, such as {@code search:70,item:30}
+         * @return the parsed mix
+         */
+        public static LoadMix parse(String mix) {
+            var weights = new EnumMap<Endpoint, Integer>(Endpoint.class);
+            for (String pair : mix.split(",")) {
+                var parts = pair.trim().split(":");
+                weights.put(Endpoint.of(parts[0]), Integer.parseInt(parts[1]));
+            }
+            return new LoadMix(weights);
+        }
+
+        Endpoint next(SplittableRandom random) {
+            int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < endpoints.length; i++) {
+                if (value < cumulativeWeights[i]) {
+                    return endpoints[i];
+                }
+            }
+            return endpoints[endpoints.length - 1];
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.example.perf;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipf distribution over the values {@code 0..n-1}, where the value of rank {@code k} is drawn with a probability
+ * proportional to {@code 1 / (k + 1)^exponent}. Ranks are mapped to values through a seeded permutation, so the
+ * popular values are spread over the whole range instead of being the smallest ones.
+ */
+public class Zipf {
+
+    private final double[] cumulative;
+    private final int[] values;
+
+    public Zipf(int n, double exponent, SplittableRandom random) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("The distribution must have at least one value");
+        }
+
+        this.cumulative = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= total;
+        }
+
+        this.values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    /**
+     * Draws a value.
+     *
+     * @param random the source of randomness
+     * @return a value between {@code 0} inclusive and {@code n} exclusive
+     */
+    public int next(SplittableRandom random) {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (rank < 0) {
+            rank = -rank - 1;
+        }
+        return values[Math.min(rank, values.length - 1)];
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.example.utils;
+
+import com.example.utils.AdaptiveConcurrencyLimit.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private long now;
+
+    private final AdaptiveConcurrencyLimit limit =
+            new AdaptiveConcurrencyLimit(20, 10, 100, 0.5, 1.5, Duration.ofSeconds(1), 10, () -> now);
+
+    @Test
+    void tryAcquire_shouldRefuseLowerPrioritiesFirst() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.tryAcquire(Priority.LOW));
+        }
+
+        assertFalse(limit.tryAcquire(Priority.LOW));
+        assertTrue(limit.tryAcquire(Priority.NORMAL));
+        assertTrue(limit.tryAcquire(Priority.CRITICAL));
+        assertEquals(12, limit.getInFlight());
+    }
+
+    @Test
+    void tryAcquire_shouldRefuseEveryPriority_whenLimitIsReached() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.tryAcquire(Priority.CRITICAL));
+        }
+
+        assertFalse(limit.tryAcquire(Priority.CRITICAL));
+
+        limit.release(1);
+
+        assertTrue(limit.tryAcquire(Priority.CRITICAL));
+    }
+
+    @Test
+    void release_shouldGrowLimit_whenLatencyIsSteady() {
+        runWindow(20, 10);
+        runWindow(20, 10);
+
+        assertTrue(limit.getLimit() > 20);
+    }
+
+    @Test
+    void release_shouldShrinkLimit_whenLatencyGrows() {
+        runWindow(20, 10);
+        int before = limit.getLimit();
+
+        runWindow(limit.getLimit(), 100);
+        runWindow(limit.getLimit(), 100);
+
+        assertTrue(limit.getLimit() < before);
+        assertTrue(limit.getLimit() >= 10);
+    }
+
+    @Test
+    void release_shouldKeepLimit_whenMostOfItIsUnused() {
+        runWindow(2, 10);
+        runWindow(2, 10);
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    private void runWindow(int concurrency, long rttMillis) {
+        for (int batch = 0; batch < 10; batch++) {
+            for (int i = 0; i < concurrency; i++) {
+                assertTrue(limit.tryAcquire(Priority.CRITICAL));
+            }
+            if (batch == 9) {
+                now += TimeUnit.SECONDS.toNanos(1);
+            }
+            for (int i = 0; i < concurrency; i++) {
+                limit.release(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+            }
+        }
+    }
+
+}
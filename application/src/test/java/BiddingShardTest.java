@@ -0,0 +1,130 @@
+package com.example.bidding;
+
+import com.example.exception.EntityNotFoundException;
+import com.example.exception.ServiceOverloadedException;
+import com.example.metrics.BidBatchSize;
+import com.example.metrics.BidsTotal;
+import com.example.model.entity.LotState;
+import com.example.model.enumeration.LotStatus;
+import com.example.repository.BidRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+class BiddingShardTest {
+
+    private final ExecutorService loader = Executors.newFixedThreadPool(2);
+    private final CountDownLatch coldLotReleased = new CountDownLatch(1);
+
+    private BiddingShard shard;
+
+    @Mock
+    private BidRepository bidRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(bidRepository.findLot(1)).thenAnswer(invocation -> {
+            coldLotReleased.await();
+            return Optional.of(lot(1));
+        });
+        when(bidRepository.findLot(2)).thenReturn(Optional.of(lot(2)));
+        when(bidRepository.findLot(3)).thenReturn(Optional.empty());
+        when(bidRepository.updateCosts(anyList(), anyList()))
+                .thenAnswer(invocation -> {
+                    var counts = new int[invocation.<List<?>>getArgument(0).size()];
+                    Arrays.fill(counts, 1);
+                    return counts;
+                });
+
+        var meterRegistry = new SimpleMeterRegistry();
+        shard = new BiddingShard(0, bidRepository, new TransactionTemplate(transactionManager), loader,
+                new BidsTotal(meterRegistry), new BidBatchSize(meterRegistry), 100, 16, 100);
+        shard.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coldLotReleased.countDown();
+        shard.stop();
+        loader.shutdownNow();
+    }
+
+    @Test
+    void submit_shouldNotStallOtherLots_whileColdLotLoads() throws Exception {
+        var cold = new BidCommand(1, "bidder", 150L);
+        var warm = new BidCommand(2, "bidder", 150L);
+
+        shard.submit(cold);
+        shard.submit(warm);
+
+        assertEquals(150L, warm.getResult().get(5, TimeUnit.SECONDS).getCurrent());
+        assertFalse(cold.getResult().isDone());
+
+        coldLotReleased.countDown();
+        assertEquals(150L, cold.getResult().get(5, TimeUnit.SECONDS).getCurrent());
+    }
+
+    @Test
+    void submit_shouldApplyCommandsInArrivalOrder_whenLotLoads() throws Exception {
+        var first = new BidCommand(1, "first", 150L);
+        var second = new BidCommand(1, "second", 140L);
+
+        shard.submit(first);
+        shard.submit(second);
+        coldLotReleased.countDown();
+
+        assertEquals("first", first.getResult().get(5, TimeUnit.SECONDS).getBidder());
+        var error = assertThrows(ExecutionException.class, () -> second.getResult().get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause().getMessage().contains("higher than the current price"));
+    }
+
+    @Test
+    void submit_shouldFailCommand_whenLotDoesNotExist() {
+        var command = new BidCommand(3, "bidder", 150L);
+
+        shard.submit(command);
+
+        var error = assertThrows(ExecutionException.class, () -> command.getResult().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(EntityNotFoundException.class, error.getCause());
+    }
+
+    @Test
+    void submit_shouldReject_afterShutdown() {
+        var held = new BidCommand(1, "bidder", 150L);
+        shard.submit(held);
+
+        shard.stop();
+
+        assertThrows(ServiceOverloadedException.class, () -> shard.submit(new BidCommand(2, "bidder", 150L)));
+        var error = assertThrows(ExecutionException.class, () -> held.getResult().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ServiceOverloadedException.class, error.getCause());
+    }
+
+    private static LotState lot(long id) {
+        return new LotState(id, "vendor", 100, 1_000, null, LocalDateTime.now().plusDays(1), LotStatus.ACTIVE);
+    }
+
+}
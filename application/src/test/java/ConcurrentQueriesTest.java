@@ -0,0 +1,117 @@
+package com.example.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentQueriesTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    private final ConcurrentQueries concurrentQueries = new ConcurrentQueries(executor);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void run_shouldReturnResultsInOrder_whenQueriesCompleteOutOfOrder() {
+        var result = concurrentQueries.run(
+                () -> sleep(100, "first"),
+                () -> "second",
+                () -> sleep(50, 3L)
+        );
+
+        assertEquals("first", result.getLeft());
+        assertEquals("second", result.getMiddle());
+        assertEquals(3L, result.getRight());
+    }
+
+    @Test
+    void run_shouldRunQueriesConcurrently() {
+        var started = new CountDownLatch(2);
+
+        var result = concurrentQueries.run(
+                () -> awaitBoth(started),
+                () -> awaitBoth(started)
+        );
+
+        assertTrue(result.getLeft());
+        assertTrue(result.getRight());
+    }
+
+    @Test
+    void run_shouldRethrowAndCancelSiblings_whenQueryFails() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+
+        var exception = assertThrows(IllegalArgumentException.class, () -> concurrentQueries.run(
+                () -> {
+                    await(started);
+                    throw new IllegalArgumentException("failed");
+                },
+                () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return null;
+                }
+        ));
+
+        assertEquals("failed", exception.getMessage());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void run_shouldNotDeadlock_whenQueriesAreNested() {
+        var singleThread = Executors.newSingleThreadExecutor();
+        var nestedQueries = new ConcurrentQueries(singleThread);
+
+        try {
+            var result = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> nestedQueries.run(
+                    () -> nestedQueries.run(() -> "first", () -> "second").getRight(),
+                    () -> nestedQueries.run(() -> 1L, () -> 2L, () -> 3L).getRight()
+            ));
+
+            assertEquals("second", result.getLeft());
+            assertEquals(3L, result.getRight());
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    private static <T> T sleep(long millis, T value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static boolean awaitBoth(CountDownLatch started) {
+        started.countDown();
+        return await(started);
+    }
+
+    private static boolean await(CountDownLatch started) {
+        try {
+            return started.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
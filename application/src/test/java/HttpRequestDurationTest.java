@@ -0,0 +1,39 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpRequestDurationTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final HttpRequestDuration httpRequestDuration =
+            new HttpRequestDuration(meterRegistry, new Duration[]{Duration.ofMillis(10)});
+
+    @Test
+    void record_shouldTagStandardMethod() {
+        httpRequestDuration.record("/items", "GET", 200, 1_000_000);
+
+        assertEquals(1, meterRegistry.get("http_request_duration_seconds")
+                .tags("route", "/items", "method", "GET", "status", "2xx")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void record_shouldShareOneSeries_forNonStandardMethods() {
+        httpRequestDuration.record("UNMATCHED", "FOO", 405, 1_000_000);
+        httpRequestDuration.record("UNMATCHED", "BAR", 405, 1_000_000);
+
+        assertEquals(2, meterRegistry.get("http_request_duration_seconds")
+                .tags("route", "UNMATCHED", "method", "OTHER")
+                .timer()
+                .count());
+        assertEquals(1, meterRegistry.find("http_request_duration_seconds").timers().size());
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.example.store;
+
+import com.example.model.entity.ItemsForPeriod;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemPriceSeriesTest {
+
+    @Test
+    void put_shouldKeepDaysSorted_whenWrittenOutOfOrder() {
+        ItemPriceSeries series = new ItemPriceSeries();
+
+        series.put(30, 300, 3);
+        series.put(10, 100, 1);
+        series.put(20, 200, 2);
+
+        List<ItemsForPeriod> result = series.slice(0, 100, 0, 10);
+
+        assertEquals(3, result.size());
+        assertEquals(LocalDate.ofEpochDay(10), result.get(0).getDay());
+        assertEquals(LocalDate.ofEpochDay(20), result.get(1).getDay());
+        assertEquals(LocalDate.ofEpochDay(30), result.get(2).getDay());
+    }
+
+    @Test
+    void put_shouldReplaceValues_whenDayExists() {
+        ItemPriceSeries series = new ItemPriceSeries();
+
+        series.put(10, 100, 1);
+        series.put(10, 150, 4);
+
+        List<ItemsForPeriod> result = series.slice(10, 10, 0, 10);
+
+        assertEquals(1, series.size());
+        assertEquals(150L, result.get(0).getMaxCostBuy());
+        assertEquals(4L, result.get(0).getQuantity());
+    }
+
+    @Test
+    void slice_shouldReturnInclusiveRangePage() {
+        ItemPriceSeries series = new ItemPriceSeries();
+        for (int day = 1; day <= 20; day++) {
+            series.put(day, day * 10L, 1);
+        }
+
+        List<ItemsForPeriod> result = series.slice(5, 15, 2, 3);
+
+        assertEquals(11, series.count(5, 15));
+        assertEquals(3, result.size());
+        assertEquals(LocalDate.ofEpochDay(7), result.get(0).getDay());
+        assertEquals(LocalDate.ofEpochDay(9), result.get(2).getDay());
+    }
+
+    @Test
+    void slice_shouldReturnEmptyList_whenOffsetPastRange() {
+        ItemPriceSeries series = new ItemPriceSeries();
+        series.put(1, 10, 1);
+        series.put(2, 20, 1);
+
+        assertTrue(series.slice(1, 2, 5, 10).isEmpty());
+        assertEquals(0, series.count(3, 10));
+    }
+}
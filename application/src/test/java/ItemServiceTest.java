@@ -1,20 +1,21 @@
 package com.example.service;
 
 import com.example.exception.EntityNotFoundException;
-import com.example.metrics.DatabaseQueriesTotal;
-import com.example.metrics.DatabaseQueryDuration;
 import com.example.model.entity.Item;
 import com.example.repository.ItemRepository;
+import com.example.utils.ConcurrentQueries;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Supplier;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,23 +27,22 @@ class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
-    @Mock
-    private DatabaseQueriesTotal dbQueriesTotal;
-
-    @Mock
-    private DatabaseQueryDuration dbQueryDuration;
+    private ConcurrentMapCacheManager cacheManager;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        cacheManager = new ConcurrentMapCacheManager();
         itemService = new ItemService(
                 itemRepository,
                 null,
                 null,
                 null,
                 null,
-                dbQueriesTotal,
-                dbQueryDuration
+                null,
+                null,
+                new ConcurrentQueries(Runnable::run),
+                cacheManager
         );
     }
 
@@ -51,48 +51,59 @@ class ItemServiceTest {
         int id = 1;
         Item item = new Item(id, "test", "");
 
-        when(dbQueryDuration.record(any(Supplier.class))).thenAnswer(invocation -> item);
+        when(itemRepository.findItem(id)).thenReturn(Optional.of(item));
 
         Item result = itemService.getItem(id);
 
         assertNotNull(result);
         assertEquals(item, result);
-        verify(dbQueriesTotal).increment();
     }
 
     @Test
     void isItemExists_shouldReturnTrue_whenExists() {
         long id = 1L;
 
-        when(dbQueryDuration.record(any(Supplier.class))).thenReturn(true);
+        when(itemRepository.isItemExists(id)).thenReturn(true);
 
         boolean result = itemService.isItemExists(id);
 
         assertTrue(result);
-        verify(dbQueriesTotal).increment();
     }
 
     @Test
     void isItemExists_shouldReturnFalse_whenNotExists() {
         long id = 1L;
 
-        when(dbQueryDuration.record(any(Supplier.class))).thenReturn(false);
+        when(itemRepository.isItemExists(id)).thenReturn(false);
 
         boolean result = itemService.isItemExists(id);
 
         assertFalse(result);
-        verify(dbQueriesTotal).increment();
     }
 
     @Test
     void getCategories_shouldReturnCategories() {
         List<String> categories = List.of("Category1", "Category2");
 
-        when(dbQueryDuration.record(any(Supplier.class))).thenReturn(categories);
+        when(itemRepository.getCategories()).thenReturn(categories);
 
         List<String> result = itemService.getCategories();
 
         assertEquals(categories, result);
-        verify(dbQueriesTotal).increment();
+    }
+
+    @Test
+    void getItems_shouldFetchOnlyMisses_andKeepInputOrder() {
+        Item cached = new Item(1, "cached", "");
+        Item fetched = new Item(2, "fetched", "");
+        cacheManager.getCache("item").put(1L, cached);
+
+        when(itemRepository.findItems(any())).thenReturn(List.of(fetched));
+
+        List<Item> result = itemService.getItems(List.of(2L, 3L, 1L));
+
+        assertEquals(Arrays.asList(fetched, null, cached), result);
+        verify(itemRepository).findItems(Set.of(2L, 3L));
+        assertEquals(fetched, cacheManager.getCache("item").get(2L, Item.class));
     }
 }
@@ -0,0 +1,52 @@
+package com.example.utils;
+
+import com.example.model.entity.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "B6E5061FADAD40CCAEBDD0F4B3EB3DEE3F4FCE86695FA0076BA9E0A894A53140";
+
+    private final JwtUtils jwtUtils = new JwtUtils(SECRET);
+
+    @Test
+    void getIssuedAtMillis_shouldKeepMilliseconds_whenIssuedByApplication() {
+        long before = System.currentTimeMillis();
+        var token = jwtUtils.generateAccessToken(Map.of(), new User("user@example.com", null, null, null));
+        long after = System.currentTimeMillis();
+
+        var issuedAt = JwtUtils.getIssuedAtMillis(jwtUtils.parseAccessToken(token));
+
+        assertNotNull(issuedAt);
+        assertTrue(issuedAt >= before && issuedAt <= after);
+    }
+
+    @Test
+    void getIssuedAtMillis_shouldFallBackToSeconds_whenClaimIsMissing() {
+        var token = Jwts.builder()
+                .setSubject("user@example.com")
+                .setIssuedAt(new Date(1_700_000_000_750L))
+                .signWith(JwtUtils.getSignInKey(SECRET), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertEquals(1_700_000_000_000L, JwtUtils.getIssuedAtMillis(jwtUtils.parseAccessToken(token)));
+    }
+
+    @Test
+    void getIssuedAtMillis_shouldReturnNull_whenTokenHasNoIssueTime() {
+        var token = Jwts.builder()
+                .setSubject("user@example.com")
+                .signWith(JwtUtils.getSignInKey(SECRET), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertNull(JwtUtils.getIssuedAtMillis(jwtUtils.parseAccessToken(token)));
+    }
+
+}
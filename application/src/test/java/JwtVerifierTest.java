@@ -0,0 +1,148 @@
+package com.example.utils;
+
+import com.example.metrics.JwtVerificationDuration;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtVerifierTest {
+
+    private static final String TOKEN = "header.payload.signature";
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    private final FakeTime time = new FakeTime();
+
+    private JwtVerifier jwtVerifier;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jwtVerifier = new JwtVerifier(jwtUtils, new JwtVerificationDuration(new SimpleMeterRegistry()), 100, TTL,
+                time, time);
+    }
+
+    @Test
+    void verify_shouldNotParseAgain_whenTokenIsCached() {
+        var claims = claims(null);
+        when(jwtUtils.parseAccessToken(TOKEN)).thenReturn(claims);
+
+        assertSame(claims, jwtVerifier.verify(TOKEN).orElseThrow());
+        assertSame(claims, jwtVerifier.verify(TOKEN).orElseThrow());
+
+        verify(jwtUtils, times(1)).parseAccessToken(TOKEN);
+    }
+
+    @Test
+    void verify_shouldParseAgain_whenTokenIsInvalid() {
+        when(jwtUtils.parseAccessToken(TOKEN)).thenThrow(new MalformedJwtException("malformed"));
+
+        assertTrue(jwtVerifier.verify(TOKEN).isEmpty());
+        assertTrue(jwtVerifier.verify(TOKEN).isEmpty());
+
+        verify(jwtUtils, times(2)).parseAccessToken(TOKEN);
+    }
+
+    @Test
+    void verify_shouldParseAgain_whenTimeToLiveElapses() {
+        when(jwtUtils.parseAccessToken(TOKEN)).thenReturn(claims(null));
+
+        jwtVerifier.verify(TOKEN);
+        time.advance(TTL.minusSeconds(1));
+        jwtVerifier.verify(TOKEN);
+        verify(jwtUtils, times(1)).parseAccessToken(TOKEN);
+
+        time.advance(Duration.ofSeconds(1));
+        jwtVerifier.verify(TOKEN);
+        verify(jwtUtils, times(2)).parseAccessToken(TOKEN);
+    }
+
+    @Test
+    void verify_shouldNotServeFromCache_whenTokenExpiresBeforeTimeToLive() {
+        var expiresIn = Duration.ofMinutes(1);
+        var claims = claims(time.instant().plus(expiresIn));
+        when(jwtUtils.parseAccessToken(TOKEN)).thenReturn(claims);
+
+        jwtVerifier.verify(TOKEN);
+        time.advance(expiresIn.minusSeconds(1));
+        jwtVerifier.verify(TOKEN);
+        verify(jwtUtils, times(1)).parseAccessToken(TOKEN);
+
+        when(jwtUtils.parseAccessToken(TOKEN)).thenThrow(new ExpiredJwtException(null, claims, "expired"));
+        time.advance(Duration.ofSeconds(1));
+
+        assertTrue(jwtVerifier.verify(TOKEN).isEmpty());
+        verify(jwtUtils, times(2)).parseAccessToken(TOKEN);
+    }
+
+    @Test
+    void verify_shouldNotServeFromCache_whenTokenIsAlreadyExpired() {
+        when(jwtUtils.parseAccessToken(TOKEN)).thenReturn(claims(time.instant().minusSeconds(1)));
+
+        jwtVerifier.verify(TOKEN);
+        jwtVerifier.verify(TOKEN);
+
+        verify(jwtUtils, times(2)).parseAccessToken(TOKEN);
+    }
+
+    private static Claims claims(Instant expiration) {
+        return Jwts.claims()
+                .setSubject("user@example.com")
+                .setExpiration(expiration == null ? null : Date.from(expiration));
+    }
+
+    /**
+     * Manually advanced time, serving both as the ticker of the cache and as the wall clock.
+     */
+    private static class FakeTime extends Clock implements Ticker {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+        private long nanos;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+            nanos += duration.toNanos();
+        }
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+    }
+
+}
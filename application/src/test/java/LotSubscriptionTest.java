@@ -0,0 +1,94 @@
+package com.example.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LotSubscriptionTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final CountDownLatch sendStarted = new CountDownLatch(1);
+    private final CountDownLatch sendReleased = new CountDownLatch(1);
+    private final AtomicInteger completions = new AtomicInteger();
+    private final AtomicInteger unsubscribed = new AtomicInteger();
+
+    /**
+     * Blocks every write until released while holding the emitter monitor, like a client that stopped reading.
+     */
+    private final SseEmitter emitter = new SseEmitter() {
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) {
+            sendStarted.countDown();
+            try {
+                sendReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completions.incrementAndGet();
+        }
+
+    };
+
+    private final LotSubscription subscription =
+            new LotSubscription(1, emitter, 4, executor, closed -> unsubscribed.incrementAndGet());
+
+    @AfterEach
+    void tearDown() {
+        sendReleased.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void isStalled_shouldReportWrite_whenBlockedLongerThanTimeout() throws InterruptedException {
+        subscription.offer(SseEmitter.event().data("event"));
+        assertTrue(sendStarted.await(5, TimeUnit.SECONDS));
+
+        assertTrue(subscription.isSending());
+        assertFalse(subscription.isStalled(System.nanoTime(), TimeUnit.MINUTES.toNanos(1)));
+        assertTrue(subscription.isStalled(System.nanoTime() + TimeUnit.MINUTES.toNanos(2), TimeUnit.MINUTES.toNanos(1)));
+    }
+
+    @Test
+    void close_shouldNotWaitForStalledWrite() throws InterruptedException {
+        subscription.offer(SseEmitter.event().data("event"));
+        assertTrue(sendStarted.await(5, TimeUnit.SECONDS));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), subscription::close);
+        assertEquals(1, unsubscribed.get());
+        assertEquals(0, completions.get());
+
+        sendReleased.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1, completions.get());
+        assertFalse(subscription.isSending());
+    }
+
+    @Test
+    void close_shouldCompleteOnce_whenIdle() {
+        subscription.close();
+        subscription.close();
+
+        assertTrue(subscription.isClosed());
+        assertEquals(1, unsubscribed.get());
+        assertEquals(1, completions.get());
+        assertTrue(subscription.offer(SseEmitter.event().data("event")));
+    }
+
+}
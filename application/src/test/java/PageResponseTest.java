@@ -0,0 +1,55 @@
+package com.example.dto.page;
+
+import com.example.dto.item.ItemViewResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageResponseTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void serialize_shouldWriteNextPage_whenNotLast() throws Exception {
+        var page = new PageResponse<>(List.of("a", "b"), PageRequest.of(0, 2), 3);
+
+        String json = objectMapper.writeValueAsString(page);
+
+        assertEquals("{\"content\":[\"a\",\"b\"],\"page\":0,\"size\":2,\"total\":3,\"next_page\":1}", json);
+    }
+
+    @Test
+    void serialize_shouldOmitNextPage_whenLast() throws Exception {
+        var page = new PageResponse<>(List.of("c"), PageRequest.of(1, 2), 3);
+
+        String json = objectMapper.writeValueAsString(page);
+
+        assertEquals("{\"content\":[\"c\"],\"page\":1,\"size\":2,\"total\":3}", json);
+    }
+
+    @Test
+    void serialize_shouldBeSmallerThanPageImpl() throws Exception {
+        var items = new ArrayList<ItemViewResponse>();
+        for (int i = 0; i < 20; i++) {
+            var item = new ItemViewResponse();
+            item.setId(i);
+            item.setName("Item " + i);
+            item.setProperties("{}");
+            items.add(item);
+        }
+        var pageable = PageRequest.of(0, 20);
+
+        byte[] lean = objectMapper.writeValueAsBytes(new PageResponse<>(items, pageable, 100));
+        byte[] full = objectMapper.writeValueAsBytes(new PageImpl<>(items, pageable, 100));
+        byte[] content = objectMapper.writeValueAsBytes(items);
+
+        assertTrue(lean.length - content.length < 60);
+        assertTrue(full.length - content.length > 300);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.store;
+
+import com.example.model.entity.LotSale;
+import com.example.model.entity.PriceDistribution;
+import com.example.repository.StreamingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+
+class PriceDistributionStoreTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private PriceDistributionStore store;
+
+    @Mock
+    private StreamingRepository streamingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<LotSale> sales = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            Consumer<LotSale> consumer = invocation.getArgument(1);
+            sales.forEach(consumer);
+            return null;
+        }).when(streamingRepository).streamSales(isNull(), any(Consumer.class));
+
+        store = new PriceDistributionStore(streamingRepository, transactionManager, new SimpleMeterRegistry(), 1, 100);
+    }
+
+    @Test
+    void find_shouldMergeDailySketches_whenRangeSpansSeveralDays() {
+        // every day sells the costs 1..1000 in a different order, so the merged range is uniform over 1..1000
+        for (int day = 0; day < 10; day++) {
+            for (int i = 0; i < 1000; i++) {
+                sales.add(new LotSale(1, START.plusDays(day), (i * 7L + day * 131L) % 1000 + 1));
+            }
+        }
+        store.load();
+
+        PriceDistribution result = store.find(1, START, START.plusDays(9));
+
+        assertEquals(10_000L, result.getCount());
+        assertEquals(100, result.getP10(), 10);
+        assertEquals(500, result.getP50(), 10);
+        assertEquals(900, result.getP90(), 10);
+    }
+
+    @Test
+    void find_shouldIncludeBothBoundaryDays() {
+        // day d sells ten lots for (d + 1) * 100 each
+        for (int day = 0; day < 10; day++) {
+            for (int i = 0; i < 10; i++) {
+                sales.add(new LotSale(1, START.plusDays(day), (day + 1) * 100L));
+            }
+        }
+        store.load();
+
+        PriceDistribution result = store.find(1, START.plusDays(2), START.plusDays(4));
+
+        assertEquals(30L, result.getCount());
+        assertEquals(300L, result.getP10());
+        assertEquals(400L, result.getP50());
+        assertEquals(500L, result.getP90());
+    }
+
+    @Test
+    void find_shouldReturnSingleDay_whenStartEqualsEnd() {
+        for (int day = 0; day < 3; day++) {
+            sales.add(new LotSale(1, START.plusDays(day), (day + 1) * 100L));
+        }
+        store.load();
+
+        PriceDistribution result = store.find(1, START.plusDays(1), START.plusDays(1));
+
+        assertEquals(1L, result.getCount());
+        assertEquals(200L, result.getP50());
+    }
+
+    @Test
+    void find_shouldReturnEmptyDistribution_whenNothingWasSold() {
+        sales.add(new LotSale(1, START, 100));
+        store.load();
+
+        PriceDistribution outside = store.find(1, START.plusDays(1), START.plusDays(5));
+        PriceDistribution unknown = store.find(2, START, START.plusDays(5));
+
+        assertEquals(0L, outside.getCount());
+        assertNull(outside.getP50());
+        assertEquals(0L, unknown.getCount());
+        assertNull(unknown.getP10());
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.example.store;
+
+import com.example.model.entity.DailySales;
+import com.example.model.entity.ItemsForPeriod;
+import com.example.repository.StreamingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+
+class PriceSeriesStoreTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private PriceSeriesStore store;
+
+    @Mock
+    private StreamingRepository streamingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            Consumer<DailySales> consumer = invocation.getArgument(1);
+            for (int day = 0; day < 10; day++) {
+                consumer.accept(new DailySales(1, START.plusDays(day), 100 + day, 1));
+            }
+            return null;
+        }).when(streamingRepository).streamDailySales(isNull(), any(Consumer.class));
+
+        store = new PriceSeriesStore(streamingRepository, transactionManager, new SimpleMeterRegistry(), 1);
+        store.load();
+    }
+
+    @Test
+    void find_shouldIncludeBothBoundaryDays() {
+        var result = store.find(1, START.plusDays(2), START.plusDays(5), PageRequest.of(0, 20));
+
+        List<ItemsForPeriod> days = result.getLeft();
+        assertTrue(store.isReady());
+        assertEquals(4L, result.getRight());
+        assertEquals(START.plusDays(2), days.get(0).getDay());
+        assertEquals(START.plusDays(5), days.get(days.size() - 1).getDay());
+    }
+
+    @Test
+    void find_shouldReturnSingleDay_whenStartEqualsEnd() {
+        var result = store.find(1, START.plusDays(3), START.plusDays(3), PageRequest.of(0, 20));
+
+        assertEquals(1L, result.getRight());
+        assertEquals(103L, result.getLeft().get(0).getMaxCostBuy());
+    }
+
+    @Test
+    void find_shouldReturnEmptyPage_whenItemIsUnknown() {
+        var result = store.find(2, START, START.plusDays(9), PageRequest.of(0, 20));
+
+        assertEquals(0L, result.getRight());
+        assertTrue(result.getLeft().isEmpty());
+    }
+
+}
@@ -0,0 +1,544 @@
+package com.example.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query plan regression tests of the repository queries, run against a database seeded by the dataset generator of
+ * the perf profile. Each query is read from its {@link Query} annotation and explained with representative
+ * parameters, and the statements run inside the PL/pgSQL functions are captured with auto_explain. The plans must not
+ * scan a large table sequentially, must use the expected indexes and must stay under a cost budget, otherwise the test
+ * fails. The budgets are about twice the estimated costs on the dataset of scale 1.
+ * <p>
+ * The shape of the plans must match the one recorded in {@code src/test/resources/query-plans}, otherwise the test fails
+ * with a diff of the two. The access method and the join strategy depend on the statistics and the visibility map of
+ * the database, so index, index-only and bitmap scans are all rendered as index scans, and hash, merge and nested loop
+ * joins as joins of their sorted inputs. The database is vacuumed first, since the costs of index-only scans depend on
+ * the visibility map as well. The queries whose plans still change between runs on the same data are not recorded.
+ * <p>
+ * Enabled with {@code -Dquery-plans.url=jdbc:postgresql://localhost:5432/coursework}, and
+ * {@code -Dquery-plans.update=true} records the current plans.
+ */
+@EnabledIfSystemProperty(named = "query-plans.url", matches = ".+")
+class QueryPlanTest {
+
+    private static final Path RECORDED_PLANS = Path.of("src/test/resources/query-plans");
+    private static final Set<String> LARGE_TABLES = Set.of("item", "item_category", "dependency", "favourite",
+            "lot", "lot_cost_information", "lot_time_information", "lot_status_information", "_user", "password");
+
+    private static final Set<String> SCANS = Set.of("Index Scan", "Index Only Scan", "Bitmap Heap Scan");
+    private static final Set<String> JOINS = Set.of("Nested Loop", "Hash Join", "Merge Join");
+    /**
+     * Nodes that only prepare the input of a join for its strategy.
+     */
+    private static final Set<String> JOIN_INPUTS = Set.of("Hash", "Sort", "Materialize", "Memoize");
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static Connection connection;
+
+    private static long hotItem;
+    private static long craftedItem;
+    private static List<Long> items;
+    private static String hotUser;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        connection = DriverManager.getConnection(System.getProperty("query-plans.url"),
+                System.getProperty("query-plans.username", "postgres"),
+                System.getProperty("query-plans.password", "postgres"));
+        try (var statement = connection.createStatement()) {
+            statement.execute("vacuum analyze");
+        }
+        connection.setAutoCommit(false);
+
+        try (var statement = connection.createStatement()) {
+            statement.execute("load 'auto_explain'");
+
+            try (var resultSet = statement.executeQuery("select item_id from lot " +
+                    "group by item_id order by count(*) desc, item_id limit 20")) {
+                items = new ArrayList<>();
+                while (resultSet.next()) {
+                    items.add(resultSet.getLong(1));
+                }
+            }
+            try (var resultSet = statement.executeQuery("select max(item_first_id) from dependency")) {
+                resultSet.next();
+                craftedItem = resultSet.getLong(1);
+            }
+            try (var resultSet = statement.executeQuery("select user_login from favourite " +
+                    "group by user_login order by count(*) desc, user_login limit 1")) {
+                hotUser = resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+
+        if (items.isEmpty() || craftedItem == 0 || hotUser == null) {
+            throw new IllegalStateException("The database is not seeded, run the dataset generator of the perf profile");
+        }
+        hotItem = items.get(0);
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> queryPlans() {
+        var today = LocalDate.now();
+
+        return Stream.of(
+                query(ItemRepository.class, "findFilteredItems", "byName",
+                        params("name", "iron", "category", null, "page_size", 20, "page_number", 0))
+                        .allowSeqScan("item")
+                        .costBudget(200),
+                query(ItemRepository.class, "findFilteredItems", "byCategory",
+                        params("name", null, "category", "ore", "page_size", 20, "page_number", 0))
+                        .expectIndex("item_category_category_idx")
+                        .costBudget(50),
+                query(ItemRepository.class, "countFilteredItems", "byName",
+                        params("name", "iron", "category", null))
+                        .allowSeqScan("item")
+                        .costBudget(1_000),
+                query(ItemRepository.class, "countFilteredItems", "byCategory",
+                        params("name", null, "category", "ore"))
+                        .expectIndex("item_category_category_idx")
+                        .allowSeqScan("item")
+                        .costBudget(1_000),
+                query(ItemRepository.class, "findItem", params("id", hotItem))
+                        .expectIndex("item_pkey")
+                        .costBudget(10),
+                query(ItemRepository.class, "findItems", params("ids", items))
+                        .expectIndex("item_pkey")
+                        .costBudget(200),
+                query(ItemRepository.class, "findFavouriteItems",
+                        params("user", hotUser, "name", null, "category", null, "page_size", 20, "page_number", 0))
+                        .expectIndex("login_item_unique_constraint")
+                        .allowSeqScan("item")
+                        .costBudget(500)
+                        .unstableShape(),
+                query(ItemRepository.class, "countFavouriteItems",
+                        params("user", hotUser, "name", null, "category", null))
+                        .expectIndex("login_item_unique_constraint")
+                        .costBudget(1_000),
+                query(ItemRepository.class, "isFavourite", params("user", hotUser, "item", hotItem))
+                        .expectIndex("login_item_unique_constraint")
+                        .costBudget(10),
+                query(ItemRepository.class, "addFavouriteItem", params("user", hotUser, "item", hotItem))
+                        .costBudget(10),
+                query(ItemRepository.class, "deleteFavouriteItem", params("user", hotUser, "item", hotItem))
+                        .expectIndex("login_item_unique_constraint")
+                        .costBudget(10),
+                query(ItemRepository.class, "isItemExists", params("item", hotItem))
+                        .expectIndex("item_pkey")
+                        .costBudget(10),
+                query(ItemRepository.class, "getSelfprice", params("id", craftedItem))
+                        .nested()
+                        .expectIndex("lot_item_id_idx", "lot_status_information_active_idx", "dependency_item_first_id_idx")
+                        .costBudget(500),
+                query(ItemRepository.class, "getSelfprices", params("ids", items))
+                        .nested()
+                        .expectIndex("lot_item_id_idx", "lot_status_information_active_idx", "dependency_item_first_id_idx")
+                        .costBudget(4_000),
+                query(ItemRepository.class, "getCategories", params())
+                        .allowSeqScan("item_category")
+                        .costBudget(1_000),
+                query(ItemRepository.class, "getFavouritesCategories", params("user", hotUser))
+                        .expectIndex("login_item_unique_constraint")
+                        .allowSeqScan("item_category")
+                        .costBudget(1_000)
+                        .unstableShape(),
+                query(LotRepository.class, "findActiveLots",
+                        params("item", hotItem, "page_size", 20, "page_number", 0))
+                        .expectIndex("lot_item_id_idx", "lot_status_information_active_idx")
+                        .costBudget(100),
+                query(LotRepository.class, "countActiveLots", params("item", hotItem))
+                        .expectIndex("lot_item_id_idx", "lot_status_information_active_idx")
+                        .costBudget(7_000),
+                query(LotRepository.class, "getLotSummaries", params("items", items))
+                        .expectIndex("lot_item_id_idx", "lot_status_information_active_idx")
+                        .costBudget(1_500),
+                query(DependencyRepository.class, "getDependencies",
+                        params("id", craftedItem, "page_size", 20, "page_number", 0))
+                        .nested()
+                        .expectIndex("dependency_item_first_id_idx")
+                        .costBudget(2_000),
+                query(DependencyRepository.class, "getDependenciesCount", params("id", craftedItem))
+                        .nested()
+                        .expectIndex("dependency_item_first_id_idx")
+                        .costBudget(2_000),
+                query(ItemsForPeriodRepository.class, "getItemsForPeriod",
+                        params("start", today.minusYears(1), "end", today, "id", hotItem,
+                                "page_size", 20, "page_number", 0))
+                        .nested()
+                        .expectIndex("lot_item_id_idx")
+                        .allowSeqScan("lot_status_information")
+                        .costBudget(50_000),
+                query(ItemsForPeriodRepository.class, "countItemsForPeriod",
+                        params("start", today.minusYears(1), "end", today, "id", hotItem))
+                        .nested()
+                        .expectIndex("lot_item_id_idx")
+                        .allowSeqScan("lot_status_information")
+                        .costBudget(50_000),
+                query(ItemsForPeriodRepository.class, "getPriceDistribution",
+                        params("start", today.minusYears(1), "end", today, "id", hotItem))
+                        .expectIndex("lot_item_id_idx")
+                        .allowSeqScan("lot_status_information")
+                        .costBudget(50_000),
+                query(UserRepository.class, "findByEmail", params("email", hotUser))
+                        .expectIndex("_user_pkey", "password_pkey")
+                        .costBudget(20),
+                query(UserRepository.class, "createUser", params("login", "plan@example.com",
+                        "birth_date", Date.valueOf("1990-01-01"), "registration_date", Date.valueOf(today),
+                        "password", "hash"))
+                        .costBudget(20),
+                query(UserRepository.class, "isUserExists", params("login", hotUser))
+                        .expectIndex("_user_pkey")
+                        .costBudget(10)
+        ).map(planCase -> DynamicTest.dynamicTest(planCase.name, () -> check(planCase)));
+    }
+
+    private static void check(PlanCase planCase) throws Exception {
+        List<JsonNode> plans;
+        try {
+            plans = explain(planCase);
+        } finally {
+            connection.rollback();
+        }
+
+        var shape = shape(plans);
+        var violations = new ArrayList<String>();
+
+        var indexes = new LinkedHashSet<String>();
+        double cost = 0;
+        for (var plan : plans) {
+            visit(plan, node -> {
+                var relation = node.path("Relation Name").asText(null);
+                if (node.path("Node Type").asText().equals("Seq Scan") && LARGE_TABLES.contains(relation)
+                        && !planCase.allowedSeqScans.contains(relation)) {
+                    violations.add("sequential scan on " + relation);
+                }
+                if (node.has("Index Name")) {
+                    indexes.add(node.get("Index Name").asText());
+                }
+            });
+
+            cost = Math.max(cost, plan.path("Total Cost").asDouble());
+        }
+        if (cost > planCase.costBudget) {
+            violations.add("estimated cost " + cost + " over the budget of " + planCase.costBudget);
+        }
+        for (var index : planCase.expectedIndexes) {
+            if (!indexes.contains(index)) {
+                violations.add("index " + index + " not used");
+            }
+        }
+
+        var details = shape;
+        if (!planCase.unstableShape) {
+            var recordedPlan = RECORDED_PLANS.resolve(planCase.name + ".txt");
+            var recorded = Files.exists(recordedPlan) ? Files.readString(recordedPlan) : null;
+            if (Boolean.getBoolean("query-plans.update")) {
+                Files.createDirectories(RECORDED_PLANS);
+                Files.writeString(recordedPlan, shape);
+            } else if (recorded == null) {
+                violations.add("no recorded plan, run with -Dquery-plans.update=true to record it");
+            } else if (!recorded.equals(shape)) {
+                violations.add("plan differs from the recorded one");
+                details = diff(recorded, shape);
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            fail(planCase.name + ": " + String.join(", ", violations) + "\n" + details);
+        }
+    }
+
+    private static List<JsonNode> explain(PlanCase planCase) throws SQLException, IOException {
+        var parsedSql = NamedParameterUtils.parseSqlStatement(planCase.sql);
+        var parameters = new MapSqlParameterSource(planCase.params);
+        planCase.types.forEach(parameters::registerSqlType);
+        var sql = NamedParameterUtils.substituteNamedParameters(parsedSql, parameters);
+        var values = NamedParameterUtils.buildValueArray(parsedSql, parameters, null);
+
+        var plans = new ArrayList<JsonNode>();
+        try (var statement = connection.prepareStatement("explain (format json) " + sql)) {
+            bind(statement, values);
+            try (var resultSet = statement.executeQuery()) {
+                resultSet.next();
+                plans.add(OBJECT_MAPPER.readTree(resultSet.getString(1)).get(0).get("Plan"));
+            }
+        }
+
+        if (planCase.nested) {
+            try (var statement = connection.createStatement()) {
+                statement.execute("set local auto_explain.log_min_duration = 0");
+                statement.execute("set local auto_explain.log_nested_statements = on");
+                statement.execute("set local auto_explain.log_format = json");
+                statement.execute("set local auto_explain.log_level = notice");
+            }
+            try (var statement = connection.prepareStatement(sql)) {
+                bind(statement, values);
+                statement.execute();
+
+                for (var warning = statement.getWarnings(); warning != null; warning = warning.getNextWarning()) {
+                    var message = warning.getMessage();
+                    int start = message.indexOf('{');
+                    if (start < 0) {
+                        continue;
+                    }
+
+                    var logged = OBJECT_MAPPER.readTree(message.substring(start));
+                    if (!logged.path("Query Text").asText().strip().equals(sql.strip())) {
+                        plans.add(logged.get("Plan"));
+                    }
+                }
+            }
+        }
+        return plans;
+    }
+
+    private static void bind(PreparedStatement statement, Object[] values) throws SQLException {
+        int index = 1;
+        for (var value : values) {
+            if (value instanceof Collection<?> collection) {
+                for (var element : collection) {
+                    StatementCreatorUtils.setParameterValue(statement, index++, SqlTypeValue.TYPE_UNKNOWN, element);
+                }
+            } else {
+                StatementCreatorUtils.setParameterValue(statement, index++, SqlTypeValue.TYPE_UNKNOWN, value);
+            }
+        }
+    }
+
+    /**
+     * Renders the node types, relations and indexes of the plans as indented trees, without the estimates, so that
+     * the shape only changes when the plan does. Repeated nested plans are rendered once.
+     */
+    private static String shape(List<JsonNode> plans) {
+        var shapes = new LinkedHashSet<String>();
+        for (var plan : plans) {
+            var shape = new StringBuilder();
+            render(plan, 0, shape);
+            shapes.add(shape.toString());
+        }
+
+        var result = new StringBuilder();
+        int i = 0;
+        for (var shape : shapes) {
+            if (i++ > 0) {
+                result.append("-- nested statement ").append(i - 1).append('\n');
+            }
+            result.append(shape);
+        }
+        return result.toString();
+    }
+
+    private static void render(JsonNode node, int depth, StringBuilder shape) {
+        var type = node.get("Node Type").asText();
+        var join = JOINS.contains(type);
+        shape.append("  ".repeat(depth)).append(join ? "Join" : SCANS.contains(type) ? "Index Scan" : type);
+        if (node.has("Join Type")) {
+            shape.append(" (").append(node.get("Join Type").asText()).append(')');
+        }
+        if (node.has("Relation Name")) {
+            shape.append(" on ").append(node.get("Relation Name").asText());
+        }
+
+        var indexes = new LinkedHashSet<String>();
+        if (type.equals("Bitmap Heap Scan")) {
+            visit(node, child -> {
+                if (child.has("Index Name")) {
+                    indexes.add(child.get("Index Name").asText());
+                }
+            });
+        } else if (node.has("Index Name")) {
+            indexes.add(node.get("Index Name").asText());
+        }
+        if (!indexes.isEmpty()) {
+            shape.append(" using ").append(String.join(", ", indexes));
+        }
+        shape.append('\n');
+
+        if (type.equals("Bitmap Heap Scan")) {
+            return;
+        }
+        var children = new ArrayList<String>();
+        for (var child : node.path("Plans")) {
+            var input = child;
+            while (join && JOIN_INPUTS.contains(input.get("Node Type").asText()) && input.path("Plans").size() == 1) {
+                input = input.path("Plans").get(0);
+            }
+            var childShape = new StringBuilder();
+            render(input, depth + 1, childShape);
+            children.add(childShape.toString());
+        }
+        if (join) {
+            children.sort(null);
+        }
+        children.forEach(shape::append);
+    }
+
+    private static void visit(JsonNode node, Consumer<JsonNode> visitor) {
+        visitor.accept(node);
+        for (var child : node.path("Plans")) {
+            visit(child, visitor);
+        }
+    }
+
+    /**
+     * Line diff of the recorded and current plans, based on their longest common subsequence.
+     */
+    private static String diff(String recorded, String current) {
+        var expected = recorded.split("\n");
+        var actual = current.split("\n");
+
+        var common = new int[expected.length + 1][actual.length + 1];
+        for (int i = expected.length - 1; i >= 0; i--) {
+            for (int j = actual.length - 1; j >= 0; j--) {
+                common[i][j] = expected[i].equals(actual[j])
+                        ? common[i + 1][j + 1] + 1
+                        : Math.max(common[i + 1][j], common[i][j + 1]);
+            }
+        }
+
+        var diff = new StringBuilder();
+        int i = 0;
+        int j = 0;
+        while (i < expected.length || j < actual.length) {
+            if (i < expected.length && j < actual.length && expected[i].equals(actual[j])) {
+                diff.append("  ").append(expected[i++]).append('\n');
+                j++;
+            } else if (i < expected.length && (j == actual.length || common[i + 1][j] >= common[i][j + 1])) {
+                diff.append("- ").append(expected[i++]).append('\n');
+            } else {
+                diff.append("+ ").append(actual[j++]).append('\n');
+            }
+        }
+        return diff.toString();
+    }
+
+    private static Map<String, Object> params(Object... namesAndValues) {
+        var params = new HashMap<String, Object>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            params.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return params;
+    }
+
+    private static PlanCase query(Class<?> repository, String method, Map<String, Object> params) {
+        return query(repository, method, null, params);
+    }
+
+    private static PlanCase query(Class<?> repository, String method, String variant, Map<String, Object> params) {
+        var queryMethod = Arrays.stream(repository.getMethods())
+                .filter(candidate -> candidate.getName().equals(method) && candidate.isAnnotationPresent(Query.class))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No query " + repository.getSimpleName() + "." + method));
+
+        var types = new HashMap<String, Integer>();
+        for (var parameter : queryMethod.getParameters()) {
+            var param = parameter.getAnnotation(Param.class);
+            if (param != null && !Collection.class.isAssignableFrom(parameter.getType())) {
+                types.put(param.value(), StatementCreatorUtils.javaTypeToSqlParameterType(parameter.getType()));
+            }
+        }
+
+        var name = repository.getSimpleName() + "." + method + (variant == null ? "" : "." + variant);
+        return new PlanCase(name, queryMethod.getAnnotation(Query.class).value(), params, types);
+    }
+
+    /**
+     * Query explained by the test, with the properties its plans must have.
+     */
+    private static class PlanCase {
+
+        private final String name;
+        private final String sql;
+        private final Map<String, Object> params;
+        private final Map<String, Integer> types;
+        private final Set<String> allowedSeqScans = new LinkedHashSet<>();
+        private final Set<String> expectedIndexes = new LinkedHashSet<>();
+        private double costBudget = Double.MAX_VALUE;
+        private boolean nested;
+        private boolean unstableShape;
+
+        PlanCase(String name, String sql, Map<String, Object> params, Map<String, Integer> types) {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+            this.types = types;
+        }
+
+        /**
+         * Allows sequential scans of large tables that the query has no index for.
+         */
+        PlanCase allowSeqScan(String... tables) {
+            allowedSeqScans.addAll(List.of(tables));
+            return this;
+        }
+
+        PlanCase expectIndex(String... indexes) {
+            expectedIndexes.addAll(List.of(indexes));
+            return this;
+        }
+
+        PlanCase costBudget(double costBudget) {
+            this.costBudget = costBudget;
+            return this;
+        }
+
+        /**
+         * Also checks the plans of the statements run by the functions the query calls, by running it.
+         */
+        PlanCase nested() {
+            this.nested = true;
+            return this;
+        }
+
+        /**
+         * Skips the comparison with the recorded shape, for the plans that change with the sampled statistics.
+         */
+        PlanCase unstableShape() {
+            this.unstableShape = true;
+            return this;
+        }
+
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RepositoryQueryMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RepositoryQueryMetrics repositoryQueryMetrics;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getObject()).thenReturn(meterRegistry);
+
+        repositoryQueryMetrics = new RepositoryQueryMetrics(meterRegistryProvider,
+                new Duration[]{Duration.ofMillis(10)});
+    }
+
+    @Test
+    void postProcessAfterInitialization_shouldRecordDurationAndRows_perMethod() {
+        var repository = (SampleRepository) repositoryQueryMetrics
+                .postProcessAfterInitialization(new SampleRepository(), "sampleRepository");
+
+        repository.findAll();
+        repository.findAll();
+        repository.findOne();
+
+        var findAll = meterRegistry.get("db_query_duration_seconds")
+                .tags("repository", "SampleRepository", "method", "findAll")
+                .timer();
+        assertEquals(2, findAll.count());
+        assertEquals(6, meterRegistry.get("db_query_rows").tags("method", "findAll").summary().totalAmount());
+        assertEquals(0, meterRegistry.get("db_query_rows").tags("method", "findOne").summary().totalAmount());
+    }
+
+    @Test
+    void postProcessAfterInitialization_shouldCountStreamedRows() {
+        var repository = (SampleRepository) repositoryQueryMetrics
+                .postProcessAfterInitialization(new SampleRepository(), "sampleRepository");
+        var received = new ArrayList<Integer>();
+
+        repository.stream(received::add);
+
+        assertEquals(List.of(1, 2), received);
+        assertEquals(2, meterRegistry.get("db_query_rows").tags("method", "stream").summary().totalAmount());
+    }
+
+    @Test
+    void postProcessAfterInitialization_shouldLeaveOtherBeansUntouched() {
+        var bean = new Object();
+
+        assertSame(bean, repositoryQueryMetrics.postProcessAfterInitialization(bean, "bean"));
+    }
+
+    @Repository
+    static class SampleRepository {
+
+        public List<Integer> findAll() {
+            return List.of(1, 2, 3);
+        }
+
+        public Optional<Integer> findOne() {
+            return Optional.empty();
+        }
+
+        public void stream(Consumer<Integer> consumer) {
+            consumer.accept(1);
+            consumer.accept(2);
+        }
+
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.example.cache;
+
+import com.example.event.CatalogCacheEvictor;
+import com.example.event.CatalogChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private static final List<?> REQUEST = List.of("name", "category", 0, 20);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ResponseCache responseCache;
+    private CatalogCacheEvictor catalogCacheEvictor;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new ResponseCache(objectMapper, new MappingJackson2CborHttpMessageConverter(),
+                new SimpleMeterRegistry(), DataSize.ofMegabytes(1), DataSize.ofBytes(64));
+        catalogCacheEvictor = new CatalogCacheEvictor(new ConcurrentMapCacheManager(), responseCache);
+    }
+
+    @Test
+    void negotiate_shouldChooseCbor_whenClientPrefersIt() {
+        assertEquals(MediaType.APPLICATION_CBOR, responseCache.negotiate("application/cbor"));
+        assertEquals(MediaType.APPLICATION_CBOR,
+                responseCache.negotiate("application/json;q=0.5, application/cbor"));
+    }
+
+    @Test
+    void negotiate_shouldChooseJson_whenClientAcceptsNoSupportedType() {
+        assertEquals(MediaType.APPLICATION_JSON, responseCache.negotiate(null));
+        assertEquals(MediaType.APPLICATION_JSON, responseCache.negotiate("*/*"));
+        assertEquals(MediaType.APPLICATION_JSON, responseCache.negotiate("text/html"));
+        assertEquals(MediaType.APPLICATION_JSON, responseCache.negotiate("not a media type"));
+    }
+
+    @Test
+    void get_shouldNotBuildAgain_whenResponseIsCached() {
+        var body = new CountingBody(Map.of("id", 1));
+
+        var first = responseCache.get("items", MediaType.APPLICATION_JSON, REQUEST, body);
+        var second = responseCache.get("items", MediaType.APPLICATION_JSON, REQUEST, body);
+
+        assertSame(first, second);
+        assertEquals(1, body.calls.get());
+    }
+
+    @Test
+    void get_shouldCacheSeparately_whenMediaTypesDiffer() throws IOException {
+        var body = new CountingBody(Map.of("id", 1));
+
+        var json = responseCache.get("items", MediaType.APPLICATION_JSON, REQUEST, body);
+        var cbor = responseCache.get("items", MediaType.APPLICATION_CBOR, REQUEST, body);
+
+        assertEquals(2, body.calls.get());
+        assertEquals(MediaType.APPLICATION_JSON, json.getContentType());
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.getContentType());
+        assertEquals(Map.of("id", 1), objectMapper.readValue(json.getBody(), Map.class));
+        assertEquals(Map.of("id", 1), new CBORMapper().readValue(cbor.getBody(), Map.class));
+
+        assertSame(json, responseCache.get("items", MediaType.APPLICATION_JSON, REQUEST, body));
+        assertSame(cbor, responseCache.get("items", MediaType.APPLICATION_CBOR, REQUEST, body));
+        assertEquals(2, body.calls.get());
+    }
+
+    @Test
+    void get_shouldCompressBody_whenBodyIsLargeEnough() throws IOException {
+        var small = responseCache.get("items", MediaType.APPLICATION_JSON, List.of("small"),
+                () -> Map.of("id", 1));
+        var large = responseCache.get("items", MediaType.APPLICATION_JSON, List.of("large"),
+                () -> Map.of("name", "item".repeat(64)));
+
+        assertNull(small.getGzip());
+        assertNotNull(large.getGzip());
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(large.getGzip()))) {
+            assertArrayEquals(large.getBody(), gzip.readAllBytes());
+        }
+    }
+
+    @Test
+    void get_shouldNotKeepResponse_whenRegionIsInvalidatedWhileBuilding() {
+        var calls = new AtomicInteger();
+        Supplier<?> body = () -> {
+            if (calls.getAndIncrement() == 0) {
+                responseCache.invalidate("items");
+            }
+            return Map.of("id", 1);
+        };
+
+        responseCache.get("items", MediaType.APPLICATION_JSON, REQUEST, body);
+        responseCache.get("items", MediaType.APPLICATION_JSON, REQUEST, body);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void onCatalogChanged_shouldInvalidateItems_whenItemsChange() {
+        var items = new CountingBody(Map.of("id", 1));
+        var categories = new CountingBody(List.of("weapon"));
+        cacheItemsAndCategories(items, categories);
+
+        catalogCacheEvictor.onCatalogChanged(new CatalogChangedEvent(Set.of(1L), Set.of(), false, false));
+        cacheItemsAndCategories(items, categories);
+
+        assertEquals(4, items.calls.get());
+        assertEquals(2, categories.calls.get());
+    }
+
+    @Test
+    void onCatalogChanged_shouldInvalidateItemsAndCategories_whenCategoriesChange() {
+        var items = new CountingBody(Map.of("id", 1));
+        var categories = new CountingBody(List.of("weapon"));
+        cacheItemsAndCategories(items, categories);
+
+        catalogCacheEvictor.onCatalogChanged(new CatalogChangedEvent(Set.of(), Set.of(), true, false));
+        cacheItemsAndCategories(items, categories);
+
+        assertEquals(4, items.calls.get());
+        assertEquals(4, categories.calls.get());
+    }
+
+    @Test
+    void onCatalogChanged_shouldKeepResponses_whenOnlyFavouritesChange() {
+        var items = new CountingBody(Map.of("id", 1));
+        var categories = new CountingBody(List.of("weapon"));
+        cacheItemsAndCategories(items, categories);
+
+        catalogCacheEvictor.onCatalogChanged(new CatalogChangedEvent(Set.of(), Set.of(1L), false, false));
+        cacheItemsAndCategories(items, categories);
+
+        assertEquals(2, items.calls.get());
+        assertEquals(2, categories.calls.get());
+    }
+
+    private void cacheItemsAndCategories(Supplier<?> items, Supplier<?> categories) {
+        for (var mediaType : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR)) {
+            responseCache.get("items", mediaType, REQUEST, items);
+            responseCache.get("categories", mediaType, List.of(), categories);
+        }
+    }
+
+    private static class CountingBody implements Supplier<Object> {
+
+        private final Object body;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingBody(Object body) {
+            this.body = body;
+        }
+
+        @Override
+        public Object get() {
+            calls.incrementAndGet();
+            return body;
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.store;
+
+import com.example.repository.TokenRevocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationStoreTest {
+
+    private static final long REVOKED_BEFORE = 1_700_000_000_750L;
+
+    private TokenRevocationStore store;
+
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        var row = mock(ResultSet.class);
+        when(row.getString("user_login")).thenReturn("user@example.com");
+        when(row.getLong("revoked_before")).thenReturn(REVOKED_BEFORE);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(tokenRevocationRepository).findWrittenSince(anyLong(), any());
+
+        store = new TokenRevocationStore(tokenRevocationRepository);
+        store.load();
+    }
+
+    @Test
+    void isRevoked_shouldRejectToken_whenIssuedBeforeRevocation() {
+        assertTrue(store.isReady());
+        assertTrue(store.isRevoked("user@example.com", 1_699_999_999_000L));
+    }
+
+    @Test
+    void isRevoked_shouldRejectToken_whenIssuedInSameSecondBeforeRevocation() {
+        assertTrue(store.isRevoked("user@example.com", REVOKED_BEFORE - 100));
+    }
+
+    @Test
+    void isRevoked_shouldAcceptToken_whenIssuedInSameSecondAfterRevocation() {
+        assertFalse(store.isRevoked("user@example.com", REVOKED_BEFORE));
+        assertFalse(store.isRevoked("user@example.com", REVOKED_BEFORE + 100));
+    }
+
+    @Test
+    void isRevoked_shouldRejectToken_whenIssueTimeIsMissing() {
+        assertTrue(store.isRevoked("user@example.com", null));
+        assertFalse(store.isRevoked("other@example.com", null));
+    }
+
+}